@@ -0,0 +1,60 @@
+package edu.advent.day1;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day1Benchmark {
+
+    //Shipped masses repeated scale times
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    private long[] input;
+
+    @Setup
+    public void setUp() {
+        long[] shipped = InputLoader.readLinesAsNumbers("day1");
+        input = new long[shipped.length * scale];
+        for (int i = 0; i < scale; i++) {
+            System.arraycopy(shipped, 0, input, i * shipped.length, shipped.length);
+        }
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day1.calculatePart1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Day1.calculatePart2(input);
+    }
+
+    @Benchmark
+    public long part1Parallel() {
+        return Day1.calculatePart1Parallel(input);
+    }
+
+    @Benchmark
+    public long part2Parallel() {
+        return Day1.calculatePart2Parallel(input);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.advent.day2;
+
+import edu.advent.intcode.IntcodeBatch;
+import edu.advent.intcode.Memory;
+import edu.advent.utils.InputLoader;
+import io.vavr.Tuple2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Scaled Intcode execution is covered by IntcodeBenchmark, program of this day is straight line code
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day2Benchmark {
+
+    private long[] input;
+    private IntcodeBatch batch;
+
+    @Setup
+    public void setUp() {
+        input = InputLoader.readComaSeparatedValues("day2");
+        batch = new IntcodeBatch(Memory.of(input), 1024);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day2.calculatePart1(input);
+    }
+
+    @Benchmark
+    public Tuple2<Integer, Integer> part2Symbolic() {
+        return Day2.calculatePart2(input);
+    }
+
+    @Benchmark
+    public Tuple2<Integer, Integer> part2BruteForce() {
+        return Day2.calculatePart2BruteForce(input);
+    }
+
+    @Benchmark
+    public Tuple2<Integer, Integer> part2Batched() {
+        return Day2.calculatePart2Batched(batch);
+    }
+}
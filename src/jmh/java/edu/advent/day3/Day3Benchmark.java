@@ -0,0 +1,67 @@
+package edu.advent.day3;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day3Benchmark {
+
+    //Each wire path repeated scale times, wire keeps drifting so every repetition adds new cells.
+    //Cell based tracing keeps every visited cell in memory, pass -p scale=1000 with big enough heap
+    @Param({"1", "10", "100"})
+    private int scale;
+
+    private List<String> input;
+
+    @Setup
+    public void setUp() {
+        input = InputLoader.getInputAsStrings("day3").stream()
+                           .map(wire -> String.join(",", Collections.nCopies(scale, wire)))
+                           .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int part1() {
+        return Day3.calculatePart1(input);
+    }
+
+    @Benchmark
+    public int part2() {
+        return Day3.calculatePart2(input);
+    }
+
+    @Benchmark
+    public long part1Segments() {
+        return Day3.calculatePart1Segments(input);
+    }
+
+    @Benchmark
+    public long part2Segments() {
+        return Day3.calculatePart2Segments(input);
+    }
+
+    @Benchmark
+    public WireIntersections.Crossings[][] boardAllPairs() {
+        return WireBoard.of(input).allPairs();
+    }
+}
@@ -0,0 +1,68 @@
+package edu.advent.day4;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day4Benchmark {
+
+    private static final int LEFT = 248345;
+    private static final int RIGHT = 746315;
+
+    //Shipped range widened scale times, capped so right end still fits in int
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    private int right;
+
+    @Setup
+    public void setUp() {
+        right = (int) Math.min(Integer.MAX_VALUE - 1, LEFT + (long) (RIGHT - LEFT) * scale);
+    }
+
+    @Benchmark
+    public int part1() {
+        return Day4.calculatePart1(LEFT, right);
+    }
+
+    @Benchmark
+    public int part2() {
+        return Day4.calculatePart2(LEFT, right);
+    }
+
+    @Benchmark
+    public long part1Parallel() {
+        return Day4.calculatePart1Parallel(LEFT, right);
+    }
+
+    @Benchmark
+    public long part2Parallel() {
+        return Day4.calculatePart2Parallel(LEFT, right);
+    }
+
+    @Benchmark
+    public long part1Counted() {
+        return Day4.calculatePart1Counted(LEFT, right);
+    }
+
+    @Benchmark
+    public long part2Counted() {
+        return Day4.calculatePart2Counted(LEFT, right);
+    }
+}
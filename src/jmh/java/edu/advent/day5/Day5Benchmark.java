@@ -0,0 +1,42 @@
+package edu.advent.day5;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Scaled Intcode execution is covered by IntcodeBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day5Benchmark {
+
+    private long[] input;
+
+    @Setup
+    public void setUp() {
+        input = InputLoader.readComaSeparatedValues("day5");
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day5.calculatePart1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Day5.calculatePart2(input);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.advent.day6;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day6Benchmark {
+
+    private static final String CENTER = "COM";
+    private static final int QUERIES = 1 << 16;
+
+    //Renamed copies of shipped map hung below COM, YOU and SAN stay only in first copy
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    private List<String> input;
+    private OrbitTransfers transfers;
+    private int[] firsts;
+    private int[] seconds;
+
+    @Setup
+    public void setUp() {
+        List<String> shipped = InputLoader.getInputAsStrings("day6");
+        input = new ArrayList<>(shipped);
+        for (int copy = 1; copy < scale; copy++) {
+            String suffix = "_" + copy;
+            input.add(CENTER + ")" + CENTER + suffix);
+            for (String orbit : shipped) {
+                String[] names = orbit.split("\\)");
+                if (names[1].equals("YOU") || names[1].equals("SAN")) {
+                    continue;
+                }
+                input.add(names[0] + suffix + ")" + names[1] + suffix);
+            }
+        }
+
+        //Random pairs of objects orbiting something, queried against one prebuilt index
+        OrbitMap map = OrbitMap.of(input);
+        transfers = new OrbitTransfers(map);
+        Random random = new Random(6);
+        int[] orbiting = IntStream.range(0, map.size()).filter(object -> map.parent(object) != OrbitMap.NONE).toArray();
+        firsts = random.ints(QUERIES, 0, orbiting.length).map(i -> orbiting[i]).toArray();
+        seconds = random.ints(QUERIES, 0, orbiting.length).map(i -> orbiting[i]).toArray();
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day6.calculatePart1(input);
+    }
+
+    @Benchmark
+    public long part1Parallel() {
+        return Day6.calculatePart1Parallel(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Day6.calculatePart2(input);
+    }
+
+    @Benchmark
+    public int[] transfersBatch() {
+        return transfers.transfers(firsts, seconds);
+    }
+}
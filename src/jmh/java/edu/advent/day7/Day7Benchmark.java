@@ -0,0 +1,57 @@
+package edu.advent.day7;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Scaled Intcode execution is covered by IntcodeBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day7Benchmark {
+
+    private long[] input;
+
+    @Setup
+    public void setUp() {
+        input = InputLoader.readComaSeparatedValues("day7");
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day7.calculatePart1(input, false);
+    }
+
+    @Benchmark
+    public long part1PrefixShared() {
+        return Day7.calculatePrefixShared(input, new int[]{0, 1, 2, 3, 4}, false);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Day7.calculatePart2(input, false);
+    }
+
+    @Benchmark
+    public long part2WarmStarted() {
+        return Day7.calculatePart2WarmStarted(input, false);
+    }
+
+    @Benchmark
+    public long part2PrefixShared() {
+        return Day7.calculatePrefixShared(input, new int[]{9, 7, 8, 5, 6}, true);
+    }
+}
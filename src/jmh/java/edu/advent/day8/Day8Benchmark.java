@@ -0,0 +1,47 @@
+package edu.advent.day8;
+
+import edu.advent.utils.InputLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day8Benchmark {
+
+    //Shipped layers repeated scale times
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    private String input;
+
+    @Setup
+    public void setUp() {
+        input = String.join("", Collections.nCopies(scale, InputLoader.getInputAsStrings("day8").get(0)));
+    }
+
+    @Benchmark
+    public long part1() {
+        return Day8.calculatePart1(input);
+    }
+
+    @Benchmark
+    public long[][] part2() {
+        return Day8.calculatePart2(input);
+    }
+}
@@ -0,0 +1,67 @@
+package edu.advent.intcode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Synthetic countdown loop, iterations grow with scale so cost per retired instruction of each engine can be compared
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntcodeBenchmark {
+
+    private static final int BASE_ITERATIONS = 10_000;
+    private static final int COUNTER = 8;
+
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    @Param({"interpreter", "blockCache", "compiled"})
+    private String engine;
+
+    private IntcodeComputer computer;
+
+    @Setup
+    public void setUp() {
+        //counter -= 1; if counter != 0 goto 0; halt
+        long[] program = {1001, COUNTER, -1, COUNTER, 1005, COUNTER, 0, 99, (long) BASE_ITERATIONS * scale};
+        switch (engine) {
+            case "interpreter":
+                computer = new IntcodeComputer(program);
+                break;
+            case "blockCache":
+                computer = new IntcodeComputer(program);
+                computer.enableBlockCache();
+                break;
+            case "compiled":
+                computer = IntcodeCompiler.compile(Memory.of(program))
+                                          .orElseThrow(() -> new IllegalStateException("System java compiler is not available"))
+                                          .newComputer();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown engine " + engine);
+        }
+    }
+
+    @Benchmark
+    public long countdown() {
+        computer.reset();
+        if (computer.run() != IntcodeComputer.State.HALTED) {
+            throw new IllegalStateException("Countdown should halt");
+        }
+        return computer.getPointer();
+    }
+}
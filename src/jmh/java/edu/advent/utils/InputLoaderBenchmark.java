@@ -0,0 +1,68 @@
+package edu.advent.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputLoaderBenchmark {
+
+    //Shipped inputs repeated scale times, written to temporary files so reading from disk is measured too
+    @Param({"1", "10", "100", "1000"})
+    private int scale;
+
+    private Path lines;
+    private Path comaSeparated;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < scale; i++) {
+            numbers.addAll(InputLoader.getInputAsStrings("day1"));
+        }
+        lines = Files.createTempFile("day1-x" + scale, ".txt");
+        Files.write(lines, numbers);
+
+        String program = InputLoader.getInputAsStrings("day5").get(0);
+        comaSeparated = Files.createTempFile("day5-x" + scale, ".txt");
+        Files.write(comaSeparated, Collections.singletonList(String.join(",", Collections.nCopies(scale, program))));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(lines);
+        Files.deleteIfExists(comaSeparated);
+    }
+
+    @Benchmark
+    public long[] readLinesAsNumbers() {
+        return InputLoader.readLinesAsNumbers(lines);
+    }
+
+    @Benchmark
+    public long[] readComaSeparatedValues() {
+        return InputLoader.readComaSeparatedValues(comaSeparated);
+    }
+}
@@ -1,8 +1,12 @@
 package edu.advent.day1;
 
 import edu.advent.utils.InputLoader;
+import edu.advent.utils.NumberStream;
 
-import java.util.function.Function;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongUnaryOperator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -67,36 +71,118 @@ public class Day1 {
         assertThat(calculatePart1(input)).isEqualTo(3239503);
 
         assertThat(calculatePart2(input)).isEqualTo(4856390);
+
+        assertThat(calculatePart1Parallel(input)).isEqualTo(3239503);
+        assertThat(calculatePart2Parallel(input)).isEqualTo(4856390);
+
+        try (NumberStream masses = InputLoader.streamNumbers("day1")) {
+            assertThat(calculatePart1(masses)).isEqualTo(3239503);
+        }
+        try (NumberStream masses = InputLoader.streamNumbers("day1")) {
+            assertThat(calculatePart2(masses)).isEqualTo(4856390);
+        }
     }
 
-    private static long calculatePart1(long[] input) {
+    static long calculatePart1(long[] input) {
         return calculateCommonPath(input, FuelCalculationStrategy::calculateOnlyFirst);
     }
 
-    private static long calculatePart2(long[] input) {
+    static long calculatePart2(long[] input) {
         return calculateCommonPath(input, FuelCalculationStrategy::calculateWithSubParts);
     }
 
-    private static long calculateCommonPath(long[] input, Function<Long, Long> fuelCalculationStrategy) {
+    static long calculatePart1Parallel(long[] input) {
+        return ForkJoinPool.commonPool().invoke(new FuelSum(input, 0, input.length, FuelCalculationStrategy::calculateOnlyFirst));
+    }
+
+    static long calculatePart2Parallel(long[] input) {
+        return ForkJoinPool.commonPool().invoke(new FuelSum(input, 0, input.length, FuelCalculationStrategy::calculateWithSubParts));
+    }
+
+    //Masses are read as they are summed, input does not have to fit in heap
+    static long calculatePart1(PrimitiveIterator.OfLong masses) {
+        return calculateCommonPath(masses, FuelCalculationStrategy::calculateOnlyFirst);
+    }
+
+    static long calculatePart2(PrimitiveIterator.OfLong masses) {
+        return calculateCommonPath(masses, FuelCalculationStrategy::calculateWithSubParts);
+    }
+
+    private static long calculateCommonPath(long[] input, LongUnaryOperator fuelCalculationStrategy) {
+        return calculateCommonPath(input, 0, input.length, fuelCalculationStrategy);
+    }
+
+    private static long calculateCommonPath(long[] input, int from, int to, LongUnaryOperator fuelCalculationStrategy) {
+        long allRequiredFuel = 0;
+        for (int i = from; i < to; i++) {
+            allRequiredFuel += fuelCalculationStrategy.applyAsLong(input[i]);
+        }
+        return allRequiredFuel;
+    }
+
+    private static long calculateCommonPath(PrimitiveIterator.OfLong masses, LongUnaryOperator fuelCalculationStrategy) {
         long allRequiredFuel = 0;
-        for (long n : input) {
-            allRequiredFuel += fuelCalculationStrategy.apply(n);
+        while (masses.hasNext()) {
+            allRequiredFuel += fuelCalculationStrategy.applyAsLong(masses.nextLong());
         }
         return allRequiredFuel;
     }
 
+    //Halves are summed by separate workers, each leaf keeps own local accumulator so nothing is shared while summing
+    private static class FuelSum extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+        private static final int CHUNK = 1 << 14;
+
+        private final long[] input;
+        private final int from;
+        private final int to;
+        private final LongUnaryOperator fuelCalculationStrategy;
+
+        FuelSum(long[] input, int from, int to, LongUnaryOperator fuelCalculationStrategy) {
+            this.input = input;
+            this.from = from;
+            this.to = to;
+            this.fuelCalculationStrategy = fuelCalculationStrategy;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= CHUNK) {
+                return calculateCommonPath(input, from, to, fuelCalculationStrategy);
+            }
+            int middle = (from + to) >>> 1;
+            FuelSum left = new FuelSum(input, from, middle, fuelCalculationStrategy);
+            left.fork();
+            long right = new FuelSum(input, middle, to, fuelCalculationStrategy).compute();
+            return left.join() + right;
+        }
+    }
+
     private static class FuelCalculationStrategy {
 
+        //Fuel including fuel for fuel of every small mass, bigger ones reach table after few divisions by 3
+        private static final int TABLE_SIZE = 1 << 16;
+        private static final int[] FUEL_WITH_SUB_PARTS = new int[TABLE_SIZE];
+
+        static {
+            for (int mass = 0; mass < TABLE_SIZE; mass++) {
+                long requiredFuel = calculateOnlyFirst(mass);
+                FUEL_WITH_SUB_PARTS[mass] = requiredFuel > 0 ? (int) (requiredFuel + FUEL_WITH_SUB_PARTS[(int) requiredFuel]) : 0;
+            }
+        }
+
         static long calculateOnlyFirst(long mass) {
             return (mass / 3) - 2;
         }
 
         static long calculateWithSubParts(long mass) {
-            long requiredFuel = (mass / 3) - 2;
-            if ((requiredFuel < 0)) {
-                return 0;
+            long allRequiredFuel = 0;
+            while (mass >= TABLE_SIZE) {
+                mass = calculateOnlyFirst(mass);
+                allRequiredFuel += mass;
             }
-            return requiredFuel + calculateWithSubParts(requiredFuel);
+            return mass < 0 ? allRequiredFuel : allRequiredFuel + FUEL_WITH_SUB_PARTS[(int) mass];
         }
     }
 }
@@ -1,11 +1,13 @@
 package edu.advent.day2;
 
+import edu.advent.intcode.IntcodeBatch;
+import edu.advent.intcode.IntcodeCompiler;
+import edu.advent.intcode.IntcodeComputer;
+import edu.advent.intcode.Memory;
 import edu.advent.utils.InputLoader;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 
-import java.util.Arrays;
-
 import static org.assertj.core.api.Assertions.assertThat;
 
 /*      ---- Part One ----
@@ -118,26 +120,44 @@ import static org.assertj.core.api.Assertions.assertThat;
 */
 public class Day2 {
 
+    private static final long TARGET = 19690720;
+    private static final int MAX_NOUN = 99;
+    private static final int MAX_VERB = 99;
+    private static final int BATCH_LANES = 1024;
+
     public static void main(String[] args) {
         long[] input = InputLoader.readComaSeparatedValues("day2");
 
         assertThat(calculatePart1(input)).isEqualTo(3306701);
+        IntcodeCompiler.compile(Memory.of(input))
+                       .ifPresent(compiled -> assertThat(calculateCommonPath(compiled.newComputer(), 12, 2)).isEqualTo(3306701));
 
         Tuple2<Integer, Integer> pair = calculatePart2(input);
         long answer2 = (100 * pair._1) + pair._2;
 
         assertThat(answer2).isEqualTo(7621);
+        assertThat(calculatePart2BruteForce(input)).isEqualTo(pair);
+
+        IntcodeBatch batch = new IntcodeBatch(Memory.of(input), BATCH_LANES);
+        assertThat(calculatePart2Batched(batch)).isEqualTo(pair);
+        assertThat(batch.getInstancesPerSecond()).isPositive();
     }
 
     //L -> noun R -> verb
-    private static Tuple2<Integer, Integer> calculatePart2(long[] input) {
-        for (int noun = 0; noun <= 99; noun++) {
-            for (int verb = 0; verb <= 99; verb++) {
-                long[] copy = Arrays.copyOf(input, input.length);
-                copy[1] = noun;
-                copy[2] = verb;
-                long result = calculateCommonPath(copy);
-                if (result == 19690720) {
+    static Tuple2<Integer, Integer> calculatePart2(long[] input) {
+        return SymbolicIntcode.resultAtAddressZero(input)
+                              .map(result -> result.solve(TARGET, MAX_NOUN, MAX_VERB)
+                                                   .orElseThrow(() -> new IllegalStateException("Pair not found?")))
+                              .orElseGet(() -> calculatePart2BruteForce(input));
+    }
+
+    static Tuple2<Integer, Integer> calculatePart2BruteForce(long[] input) {
+        IntcodeComputer computer = new IntcodeComputer(input);
+        for (int noun = 0; noun <= MAX_NOUN; noun++) {
+            for (int verb = 0; verb <= MAX_VERB; verb++) {
+                computer.reset();
+                long result = calculateCommonPath(computer, noun, verb);
+                if (result == TARGET) {
                     return Tuple.of(noun, verb);
                 }
             }
@@ -145,31 +165,41 @@ public class Day2 {
         throw new IllegalStateException("Pair not found?");
     }
 
-    private static long calculatePart1(long[] input) {
-        long[] copy = Arrays.copyOf(input, input.length);
-        copy[1] = 12;
-        copy[2] = 2;
-        return calculateCommonPath(copy);
-    }
-
-    private static long calculateCommonPath(long[] input) {
-        for (int i = 0; i < input.length; i += 4) {
-            int opcode = (int) input[i];
-            if (opcode == 99) {
-                break;
+    //Lane -> noun * (MAX_VERB + 1) + verb, whole sweep runs as few lockstep batches
+    static Tuple2<Integer, Integer> calculatePart2Batched(IntcodeBatch batch) {
+        int lanes = batch.getLanes();
+        int candidates = (MAX_NOUN + 1) * (MAX_VERB + 1);
+        for (int first = 0; first < candidates; first += lanes) {
+            batch.reset();
+            for (int lane = 0; lane < lanes; lane++) {
+                int candidate = Math.min(first + lane, candidates - 1);
+                batch.set(lane, 1, candidate / (MAX_VERB + 1));
+                batch.set(lane, 2, candidate % (MAX_VERB + 1));
             }
-            int num1Pos = (int) input[i + 1];
-            int num2Pos = (int) input[i + 2];
-            int outputPos = (int) input[i + 3];
-            switch (opcode) {
-                case 1:
-                    input[outputPos] = input[num1Pos] + input[num2Pos];
-                    break;
-                case 2:
-                    input[outputPos] = input[num1Pos] * input[num2Pos];
-                    break;
+            batch.run();
+            for (int lane = 0; lane < lanes && first + lane < candidates; lane++) {
+                if (batch.getState(lane) != IntcodeComputer.State.HALTED) {
+                    throw new IllegalStateException("Program should halt without any I/O");
+                }
+                if (batch.get(lane, 0) == TARGET) {
+                    return Tuple.of((first + lane) / (MAX_VERB + 1), (first + lane) % (MAX_VERB + 1));
+                }
             }
         }
-        return input[0];
+        throw new IllegalStateException("Pair not found?");
+    }
+
+    static long calculatePart1(long[] input) {
+        return calculateCommonPath(new IntcodeComputer(input), 12, 2);
+    }
+
+    private static long calculateCommonPath(IntcodeComputer computer, int noun, int verb) {
+        Memory memory = computer.getMemory();
+        memory.set(1, noun);
+        memory.set(2, verb);
+        if (computer.run() != IntcodeComputer.State.HALTED) {
+            throw new IllegalStateException("Program should halt without any I/O");
+        }
+        return memory.get(0);
     }
 }
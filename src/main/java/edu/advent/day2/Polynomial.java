@@ -0,0 +1,195 @@
+package edu.advent.day2;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+//Polynomial in noun (n) and verb (v) with wrapping long coefficients, same arithmetic as concrete Intcode execution
+public class Polynomial {
+
+    static final int MAX_DEGREE = 4;
+    private static final int SIZE = MAX_DEGREE + 1;
+
+    static final Polynomial NOUN = term(1, 0);
+    static final Polynomial VERB = term(0, 1);
+
+    //coefficients[nounDegree * SIZE + verbDegree]
+    private final long[] coefficients;
+
+    private Polynomial(long[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    static Polynomial constant(long value) {
+        long[] coefficients = new long[SIZE * SIZE];
+        coefficients[0] = value;
+        return new Polynomial(coefficients);
+    }
+
+    private static Polynomial term(int nounDegree, int verbDegree) {
+        long[] coefficients = new long[SIZE * SIZE];
+        coefficients[nounDegree * SIZE + verbDegree] = 1;
+        return new Polynomial(coefficients);
+    }
+
+    boolean isConstant() {
+        for (int i = 1; i < coefficients.length; i++) {
+            if (coefficients[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long constantValue() {
+        return coefficients[0];
+    }
+
+    Polynomial add(Polynomial other) {
+        long[] result = new long[SIZE * SIZE];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = coefficients[i] + other.coefficients[i];
+        }
+        return new Polynomial(result);
+    }
+
+    boolean canMultiply(Polynomial other) {
+        return nounDegree() + other.nounDegree() <= MAX_DEGREE && verbDegree() + other.verbDegree() <= MAX_DEGREE;
+    }
+
+    Polynomial multiply(Polynomial other) {
+        if (!canMultiply(other)) {
+            throw new IllegalArgumentException("Product degree exceeds " + MAX_DEGREE);
+        }
+        long[] result = new long[SIZE * SIZE];
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < other.coefficients.length; j++) {
+                if (other.coefficients[j] != 0) {
+                    int nounDegree = i / SIZE + j / SIZE;
+                    int verbDegree = i % SIZE + j % SIZE;
+                    result[nounDegree * SIZE + verbDegree] += coefficients[i] * other.coefficients[j];
+                }
+            }
+        }
+        return new Polynomial(result);
+    }
+
+    long evaluate(long noun, long verb) {
+        long result = 0;
+        long nounPower = 1;
+        for (int i = 0; i < SIZE; i++) {
+            long verbPower = 1;
+            for (int j = 0; j < SIZE; j++) {
+                result += coefficients[i * SIZE + j] * nounPower * verbPower;
+                verbPower *= verb;
+            }
+            nounPower *= noun;
+        }
+        return result;
+    }
+
+    //First pair in the same (noun, verb) order as brute force search would visit them
+    Optional<Tuple2<Integer, Integer>> solve(long target, int maxNoun, int maxVerb) {
+        if (isAffine()) {
+            return solveAffine(target, maxNoun, maxVerb);
+        }
+        for (int noun = 0; noun <= maxNoun; noun++) {
+            for (int verb = 0; verb <= maxVerb; verb++) {
+                if (evaluate(noun, verb) == target) {
+                    return Optional.of(Tuple.of(noun, verb));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    //target = c + a * noun + b * verb, single pass over nouns
+    private Optional<Tuple2<Integer, Integer>> solveAffine(long target, int maxNoun, int maxVerb) {
+        long c = coefficients[0];
+        long a = coefficients[SIZE];
+        long b = coefficients[1];
+        for (int noun = 0; noun <= maxNoun; noun++) {
+            long remainder = target - c - a * noun;
+            long verb;
+            if (b == 0) {
+                if (remainder != 0) {
+                    continue;
+                }
+                verb = 0;
+            } else {
+                if (remainder % b != 0) {
+                    continue;
+                }
+                verb = remainder / b;
+            }
+            if (verb >= 0 && verb <= maxVerb && evaluate(noun, verb) == target) {
+                return Optional.of(Tuple.of(noun, (int) verb));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isAffine() {
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] != 0 && i != 0 && i != 1 && i != SIZE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nounDegree() {
+        for (int i = MAX_DEGREE; i > 0; i--) {
+            for (int j = 0; j < SIZE; j++) {
+                if (coefficients[i * SIZE + j] != 0) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private int verbDegree() {
+        for (int j = MAX_DEGREE; j > 0; j--) {
+            for (int i = 0; i < SIZE; i++) {
+                if (coefficients[i * SIZE + j] != 0) {
+                    return j;
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(coefficients, ((Polynomial) o).coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] != 0) {
+                if (builder.length() > 0) {
+                    builder.append(" + ");
+                }
+                builder.append(coefficients[i]);
+                if (i / SIZE > 0) builder.append("*n^").append(i / SIZE);
+                if (i % SIZE > 0) builder.append("*v^").append(i % SIZE);
+            }
+        }
+        return builder.length() == 0 ? "0" : builder.toString();
+    }
+}
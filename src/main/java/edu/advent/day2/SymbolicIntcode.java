@@ -0,0 +1,68 @@
+package edu.advent.day2;
+
+import java.util.Optional;
+
+//Runs add/multiply-only program once with address 1 as noun and address 2 as verb, result at address 0 as polynomial
+public class SymbolicIntcode {
+
+    private static final int ADD = 1;
+    private static final int MULTIPLY = 2;
+    private static final int HALT = 99;
+
+    //Cell value that could not be tracked, e.g. read through symbolic address
+    private static final Polynomial UNKNOWN = null;
+
+    //Empty when execution depends on symbolic values (opcode, write address, result), concrete run is needed then
+    public static Optional<Polynomial> resultAtAddressZero(long[] program) {
+        Polynomial[] memory = new Polynomial[program.length];
+        for (int i = 0; i < program.length; i++) {
+            memory[i] = Polynomial.constant(program[i]);
+        }
+        memory[1] = Polynomial.NOUN;
+        memory[2] = Polynomial.VERB;
+
+        for (int i = 0; i < memory.length; i += 4) {
+            Integer opcode = concrete(memory[i]);
+            if (opcode == null) {
+                return Optional.empty();
+            }
+            if (opcode == HALT) {
+                return Optional.ofNullable(memory[0]);
+            }
+            if ((opcode != ADD && opcode != MULTIPLY) || i + 3 >= memory.length) {
+                return Optional.empty();
+            }
+            Integer outputPos = concrete(memory[i + 3]);
+            if (outputPos == null || outputPos < 0 || outputPos >= memory.length) {
+                return Optional.empty();
+            }
+            Polynomial first = read(memory, memory[i + 1]);
+            Polynomial second = read(memory, memory[i + 2]);
+            if (first == UNKNOWN || second == UNKNOWN) {
+                memory[outputPos] = UNKNOWN;
+            } else if (opcode == ADD) {
+                memory[outputPos] = first.add(second);
+            } else {
+                memory[outputPos] = first.canMultiply(second) ? first.multiply(second) : UNKNOWN;
+            }
+        }
+        return Optional.empty();
+    }
+
+    //Symbolic address could point anywhere, value is unknown but does not stop execution
+    private static Polynomial read(Polynomial[] memory, Polynomial address) {
+        Integer position = concrete(address);
+        if (position == null || position < 0 || position >= memory.length) {
+            return UNKNOWN;
+        }
+        return memory[position];
+    }
+
+    private static Integer concrete(Polynomial value) {
+        if (value == UNKNOWN || !value.isConstant()) {
+            return null;
+        }
+        long constant = value.constantValue();
+        return constant == (int) constant ? (int) constant : null;
+    }
+}
@@ -0,0 +1,127 @@
+package edu.advent.day3;
+
+//Open addressing map from cell packed into one long to steps of first visit, no boxing and no entry objects.
+//Steps are positive, zero marks empty slot
+public class CellStepMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    public interface CrossingMetric {
+        long of(int x, int y, int firstSteps, int secondSteps);
+    }
+
+    private long[] keys;
+    private int[] steps;
+    private int mask;
+    private int size;
+
+    public CellStepMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public CellStepMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        steps = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    public static int unpackY(long cell) {
+        return (int) cell;
+    }
+
+    //Keeps steps of first visit, returns false when cell was visited before
+    public boolean putIfAbsent(int x, int y, int stepCount) {
+        if (stepCount <= 0) {
+            throw new IllegalArgumentException("Steps should be positive: " + stepCount);
+        }
+        long cell = pack(x, y);
+        int slot = slot(cell);
+        while (steps[slot] != 0) {
+            if (keys[slot] == cell) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = cell;
+        steps[slot] = stepCount;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    //Zero when cell was not visited
+    public int get(int x, int y) {
+        long cell = pack(x, y);
+        for (int slot = slot(cell); steps[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == cell) {
+                return steps[slot];
+            }
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //Lowest metric over cells visited by both, smaller map is walked and larger one probed. Long.MAX_VALUE when none
+    public long minOverIntersection(CellStepMap other, CrossingMetric metric) {
+        boolean walkThis = size <= other.size;
+        CellStepMap walked = walkThis ? this : other;
+        CellStepMap probed = walkThis ? other : this;
+        long min = Long.MAX_VALUE;
+        for (int slot = 0; slot < walked.keys.length; slot++) {
+            if (walked.steps[slot] == 0) {
+                continue;
+            }
+            long cell = walked.keys[slot];
+            int x = unpackX(cell);
+            int y = unpackY(cell);
+            int probedSteps = probed.get(x, y);
+            if (probedSteps != 0) {
+                int walkedSteps = walked.steps[slot];
+                min = Math.min(min, walkThis ? metric.of(x, y, walkedSteps, probedSteps) : metric.of(x, y, probedSteps, walkedSteps));
+            }
+        }
+        return min;
+    }
+
+    private int slot(long cell) {
+        //Finalizer of murmur3, neighbouring cells differ only in few low bits
+        long hash = cell;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldSteps = steps;
+        keys = new long[oldKeys.length * 2];
+        steps = new int[oldSteps.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSteps[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (steps[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                steps[slot] = oldSteps[i];
+            }
+        }
+    }
+}
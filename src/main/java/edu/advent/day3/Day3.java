@@ -1,12 +1,7 @@
 package edu.advent.day3;
 
 import edu.advent.utils.InputLoader;
-import io.vavr.collection.HashSet;
-import io.vavr.collection.LinkedHashMap;
-import io.vavr.collection.Map;
-import io.vavr.collection.Set;
 
-import java.awt.*;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -108,81 +103,88 @@ public class Day3 {
 
         assertThat(calculatePart1(input)).isEqualTo(1264);
         assertThat(calculatePart2(input)).isEqualTo(37390);
-    }
 
-    private static int calculatePart1(List<String> input) {
-        String[] firstWirePath = input.get(0).split(",");
-        String[] secondWirePath = input.get(1).split(",");
+        assertThat(calculatePart1Segments(input)).isEqualTo(1264);
+        assertThat(calculatePart2Segments(input)).isEqualTo(37390);
 
-        Map<Point, Integer> allOccupiedPointsWire1 = calculateAllPointsOnPath(firstWirePath);
-        Map<Point, Integer> allOccupiedPointsWire2 = calculateAllPointsOnPath(secondWirePath);
+        WireIntersections.Crossings boardPair = WireBoard.of(input).allPairs()[0][1];
+        assertThat(boardPair.getClosestDistance()).isEqualTo(1264);
+        assertThat(boardPair.getFewestSteps()).isEqualTo(37390);
+    }
 
-        Set<Point> intersections = HashSet.ofAll(allOccupiedPointsWire1.keySet())
-                                          .intersect(HashSet.ofAll(allOccupiedPointsWire2.keySet()));
+    static long calculatePart1Segments(List<String> input) {
+        return crossings(input).getClosestDistance();
+    }
 
-        return intersections.map(p -> (int) p.getX() + (int) p.getY())
-                            .min().get();
+    static long calculatePart2Segments(List<String> input) {
+        return crossings(input).getFewestSteps();
     }
 
-    private static int calculatePart2(List<String> input) {
-        String[] firstWirePath = input.get(0).split(",");
-        String[] secondWirePath = input.get(1).split(",");
+    private static WireIntersections.Crossings crossings(List<String> input) {
+        WireIntersections.Crossings crossings = WireBoard.of(input).crossings(0, 1);
+        if (crossings.isEmpty()) {
+            throw new IllegalStateException("Wires do not cross");
+        }
+        return crossings;
+    }
+
+    static int calculatePart1(List<String> input) {
+        CellStepMap firstWireCells = calculateAllPointsOnPath(input.get(0).split(","));
+        CellStepMap secondWireCells = calculateAllPointsOnPath(input.get(1).split(","));
 
-        Map<Point, Integer> allPointsOnPath1 = calculateAllPointsOnPath(firstWirePath);
-        Map<Point, Integer> allPointsOnPath2 = calculateAllPointsOnPath(secondWirePath);
+        return closest(firstWireCells.minOverIntersection(secondWireCells, (x, y, firstSteps, secondSteps) -> Math.abs(x) + Math.abs(y)));
+    }
 
-        Set<Point> intersections = HashSet.ofAll(allPointsOnPath1.keySet())
-                                          .intersect(HashSet.ofAll(allPointsOnPath2.keySet()));
+    static int calculatePart2(List<String> input) {
+        CellStepMap firstWireCells = calculateAllPointsOnPath(input.get(0).split(","));
+        CellStepMap secondWireCells = calculateAllPointsOnPath(input.get(1).split(","));
 
-        return intersections.map(point -> allPointsOnPath1.get(point).get() + allPointsOnPath2.get(point).get())
-                            .min().get();
+        return closest(firstWireCells.minOverIntersection(secondWireCells, (x, y, firstSteps, secondSteps) -> firstSteps + secondSteps));
     }
 
-    //This returns map to keep track which point took which amount of steps to move to
-    private static Map<Point, Integer> calculateAllPointsOnPath(String[] instructions) {
-        Map<Point, Integer> result = LinkedHashMap.empty();
-        int currentAmount = 0;
-        Point currentCords = new Point(0, 0);
-        for (String instruction : instructions) {
-            Map<Point, Integer> occupiedPoints = pointsOnMove(currentAmount, currentCords, instruction);
-            currentAmount = occupiedPoints.last()._2;
-            currentCords = occupiedPoints.last()._1;
-            result = result.merge(occupiedPoints);
+    private static int closest(long min) {
+        if (min == Long.MAX_VALUE) {
+            throw new IllegalStateException("Wires do not cross");
         }
-        return result;
+        return Math.toIntExact(min);
     }
 
-    private static Map<Point, Integer> pointsOnMove(int currentAmount, Point currentCords, String instruction) {
-        Map<Point, Integer> occupiedPoints = LinkedHashMap.empty();
-        char direction = instruction.charAt(0);
-        int amount = Integer.parseInt(instruction.substring(1));
-        int currentSteps = currentAmount;
-        int oldX = (int) currentCords.getX();
-        int oldY = (int) currentCords.getY();
-        switch (direction) {
-            case 'U':
-                for (int i = oldY + 1; i <= oldY + amount; ++i) {
-                    occupiedPoints = occupiedPoints.put(new Point(oldX, i), ++currentSteps);
-                }
-                break;
-            case 'D':
-                for (int i = oldY - 1; i >= oldY - amount; i--) {
-                    occupiedPoints = occupiedPoints.put(new Point(oldX, i), ++currentSteps);
-                }
-                break;
-            case 'R':
-                for (int i = oldX + 1; i <= oldX + amount; ++i) {
-                    occupiedPoints = occupiedPoints.put(new Point(i, oldY), ++currentSteps);
-                }
-                break;
-            case 'L':
-                for (int i = oldX - 1; i >= oldX - amount; i--) {
-                    occupiedPoints = occupiedPoints.put(new Point(i, oldY), ++currentSteps);
+    //Keeps track which cell took which amount of steps to reach first time
+    private static CellStepMap calculateAllPointsOnPath(String[] instructions) {
+        CellStepMap result = new CellStepMap();
+        int currentSteps = 0;
+        int x = 0;
+        int y = 0;
+        for (String instruction : instructions) {
+            int amount = Integer.parseInt(instruction.substring(1));
+            int dx = 0;
+            int dy = 0;
+            switch (instruction.charAt(0)) {
+                case 'U':
+                    dy = 1;
+                    break;
+                case 'D':
+                    dy = -1;
+                    break;
+                case 'R':
+                    dx = 1;
+                    break;
+                case 'L':
+                    dx = -1;
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid direction?");
+            }
+            for (int i = 0; i < amount; i++) {
+                x += dx;
+                y += dy;
+                currentSteps++;
+                //Crossing at central port does not count even when wire comes back to it
+                if (x != 0 || y != 0) {
+                    result.putIfAbsent(x, y, currentSteps);
                 }
-                break;
-            default:
-                throw new IllegalStateException("Invalid direction?");
+            }
         }
-        return occupiedPoints;
+        return result;
     }
 }
@@ -0,0 +1,87 @@
+package edu.advent.day3;
+
+//Wire kept as axis aligned segments instead of cells, segment i goes from corner i to corner i + 1
+public class Wire {
+
+    private final long[] xs;
+    private final long[] ys;
+    //Steps walked before reaching corner
+    private final long[] steps;
+
+    private Wire(long[] xs, long[] ys, long[] steps) {
+        this.xs = xs;
+        this.ys = ys;
+        this.steps = steps;
+    }
+
+    //Path like R75,D30,U83 starting at central port
+    public static Wire parse(CharSequence path) {
+        int moves = path.length() == 0 ? 0 : 1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == ',') {
+                moves++;
+            }
+        }
+        long[] xs = new long[moves + 1];
+        long[] ys = new long[moves + 1];
+        long[] steps = new long[moves + 1];
+        int position = 0;
+        for (int move = 0; move < moves; move++) {
+            char direction = path.charAt(position++);
+            long amount = 0;
+            while (position < path.length() && path.charAt(position) != ',') {
+                amount = amount * 10 + (path.charAt(position++) - '0');
+            }
+            position++;
+            xs[move + 1] = xs[move];
+            ys[move + 1] = ys[move];
+            switch (direction) {
+                case 'U':
+                    ys[move + 1] += amount;
+                    break;
+                case 'D':
+                    ys[move + 1] -= amount;
+                    break;
+                case 'R':
+                    xs[move + 1] += amount;
+                    break;
+                case 'L':
+                    xs[move + 1] -= amount;
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid direction?");
+            }
+            steps[move + 1] = steps[move] + amount;
+        }
+        return new Wire(xs, ys, steps);
+    }
+
+    public int segmentCount() {
+        return xs.length - 1;
+    }
+
+    long startX(int segment) {
+        return xs[segment];
+    }
+
+    long startY(int segment) {
+        return ys[segment];
+    }
+
+    long endX(int segment) {
+        return xs[segment + 1];
+    }
+
+    long endY(int segment) {
+        return ys[segment + 1];
+    }
+
+    boolean isHorizontal(int segment) {
+        return ys[segment] == ys[segment + 1];
+    }
+
+    //Steps walked when reaching given point of segment
+    long stepsAt(int segment, long x, long y) {
+        return steps[segment] + Math.abs(x - xs[segment]) + Math.abs(y - ys[segment]);
+    }
+}
@@ -0,0 +1,131 @@
+package edu.advent.day3;
+
+import edu.advent.day3.WireIntersections.Crossings;
+import edu.advent.day3.WireIntersections.Span;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+//Any number of wires, all pairs come from one index of every segment instead of sweeping each pair on its own
+public class WireBoard {
+
+    //Several strips or line chunks per worker so uneven crossing density still spreads across them,
+    //each of them fills own pair matrix so their count is kept small
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final Wire[] wires;
+
+    private WireBoard(Wire[] wires) {
+        this.wires = wires;
+    }
+
+    //Paths are parsed in parallel
+    public static WireBoard of(List<? extends CharSequence> paths) {
+        return new WireBoard(paths.parallelStream().map(Wire::parse).toArray(Wire[]::new));
+    }
+
+    public int size() {
+        return wires.length;
+    }
+
+    public Crossings crossings(int first, int second) {
+        if (first == second) {
+            throw new IllegalArgumentException("Wire does not cross itself: " + first);
+        }
+        return WireIntersections.find(wires[first], wires[second]);
+    }
+
+    //[i][j] for i < j holds crossings of wires i and j, other cells are null.
+    //Verticals are split by x into strips swept in parallel, each strip only looks at horizontals sorted by start that reach it
+    public Crossings[][] allPairs() {
+        Span[] horizontals = WireIntersections.spans(wires, true).toArray(new Span[0]);
+        Arrays.sort(horizontals, Comparator.comparingLong(span -> span.from));
+        long[] horizontalStarts = Arrays.stream(horizontals).mapToLong(span -> span.from).toArray();
+        Span[] verticals = WireIntersections.spans(wires, false).toArray(new Span[0]);
+        Arrays.sort(verticals, Comparator.comparingLong(span -> span.line));
+
+        int strips = Math.max(1, Math.min(verticals.length, chunks()));
+        Crossings[][] perpendicular = IntStream.range(0, strips).parallel().mapToObj(strip -> {
+            int fromVertical = (int) ((long) verticals.length * strip / strips);
+            int toVertical = (int) ((long) verticals.length * (strip + 1) / strips);
+            if (fromVertical == toVertical) {
+                return newPairs();
+            }
+            long fromX = verticals[fromVertical].line;
+            long toX = verticals[toVertical - 1].line;
+            List<Span> reaching = new ArrayList<>();
+            for (int i = 0, end = upperBound(horizontalStarts, toX); i < end; i++) {
+                if (horizontals[i].to >= fromX) {
+                    reaching.add(horizontals[i]);
+                }
+            }
+            Crossings[][] pairs = newPairs();
+            WireIntersections.crossPerpendicular(wires, reaching, Arrays.asList(verticals).subList(fromVertical, toVertical),
+                                                 (first, second, x, y, firstSteps, secondSteps) -> pairs[first][second].accept(x, y, firstSteps, secondSteps));
+            return pairs;
+        }).reduce(WireBoard::mergePairs).orElseGet(this::newPairs);
+
+        Crossings[][] parallel = overlapLines(WireIntersections.byLine(Arrays.asList(horizontals)).values(), true);
+        Crossings[][] vertical = overlapLines(WireIntersections.byLine(Arrays.asList(verticals)).values(), false);
+        return mergePairs(mergePairs(perpendicular, parallel), vertical);
+    }
+
+    //Lines are handed out in chunks, one pair matrix per chunk instead of per line
+    private Crossings[][] overlapLines(Collection<List<Span>> lines, boolean horizontal) {
+        List<List<Span>> all = new ArrayList<>(lines);
+        int chunks = Math.max(1, Math.min(all.size(), chunks()));
+        return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            int fromLine = (int) ((long) all.size() * chunk / chunks);
+            int toLine = (int) ((long) all.size() * (chunk + 1) / chunks);
+            Crossings[][] pairs = newPairs();
+            for (int line = fromLine; line < toLine; line++) {
+                WireIntersections.overlapParallel(wires, new ArrayList<>(all.get(line)), horizontal,
+                                                  (first, second, x, y, firstSteps, secondSteps) -> pairs[first][second].accept(x, y, firstSteps, secondSteps));
+            }
+            return pairs;
+        }).reduce(WireBoard::mergePairs).orElseGet(this::newPairs);
+    }
+
+    private static int chunks() {
+        return ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_WORKER;
+    }
+
+    private Crossings[][] newPairs() {
+        Crossings[][] pairs = new Crossings[wires.length][wires.length];
+        for (int first = 0; first < wires.length; first++) {
+            for (int second = first + 1; second < wires.length; second++) {
+                pairs[first][second] = new Crossings();
+            }
+        }
+        return pairs;
+    }
+
+    private static Crossings[][] mergePairs(Crossings[][] into, Crossings[][] from) {
+        for (int first = 0; first < into.length; first++) {
+            for (int second = first + 1; second < into.length; second++) {
+                into[first][second].merge(from[first][second]);
+            }
+        }
+        return into;
+    }
+
+    //Index of first value greater than key
+    private static int upperBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
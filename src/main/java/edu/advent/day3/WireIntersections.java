@@ -0,0 +1,215 @@
+package edu.advent.day3;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+//Crossings of wires from segment math, sweep line over x keeps horizontal segments it currently passes ordered by y.
+//Cost depends on number of segments and crossings, not on wire length
+public class WireIntersections {
+
+    private static final int HORIZONTAL_START = 0;
+    private static final int VERTICAL = 1;
+    private static final int HORIZONTAL_END = 2;
+
+    public interface CrossingConsumer {
+        void accept(long x, long y, long firstSteps, long secondSteps);
+    }
+
+    //Lower wire index always comes first
+    interface PairConsumer {
+        void accept(int firstWire, int secondWire, long x, long y, long firstSteps, long secondSteps);
+    }
+
+    //Both answers from one sweep, central port does not count
+    public static Crossings find(Wire first, Wire second) {
+        Crossings crossings = new Crossings();
+        forEachCandidate(first, second, crossings::accept);
+        return crossings;
+    }
+
+    //Every perpendicular crossing, for overlapping parallel segments only points where distance or steps can be lowest
+    public static void forEachCandidate(Wire first, Wire second, CrossingConsumer consumer) {
+        Wire[] wires = {first, second};
+        PairConsumer pairConsumer = (firstWire, secondWire, x, y, firstSteps, secondSteps) -> consumer.accept(x, y, firstSteps, secondSteps);
+        crossPerpendicular(wires, spans(wires, true), spans(wires, false), pairConsumer);
+        for (List<Span> line : byLine(spans(wires, true)).values()) {
+            overlapParallel(wires, line, true, pairConsumer);
+        }
+        for (List<Span> line : byLine(spans(wires, false)).values()) {
+            overlapParallel(wires, line, false, pairConsumer);
+        }
+    }
+
+    //Zero length move counts as horizontal only
+    static List<Span> spans(Wire[] wires, boolean horizontal) {
+        List<Span> spans = new ArrayList<>();
+        for (int wireIndex = 0; wireIndex < wires.length; wireIndex++) {
+            Wire wire = wires[wireIndex];
+            for (int segment = 0; segment < wire.segmentCount(); segment++) {
+                if (wire.isHorizontal(segment) != horizontal) {
+                    continue;
+                }
+                long line = horizontal ? wire.startY(segment) : wire.startX(segment);
+                long start = horizontal ? wire.startX(segment) : wire.startY(segment);
+                long end = horizontal ? wire.endX(segment) : wire.endY(segment);
+                spans.add(new Span(wireIndex, segment, line, Math.min(start, end), Math.max(start, end)));
+            }
+        }
+        return spans;
+    }
+
+    static Map<Long, List<Span>> byLine(List<Span> spans) {
+        Map<Long, List<Span>> lines = new HashMap<>();
+        for (Span span : spans) {
+            lines.computeIfAbsent(span.line, key -> new ArrayList<>()).add(span);
+        }
+        return lines;
+    }
+
+    //Horizontal spans not reaching any of given verticals are simply never queried
+    static void crossPerpendicular(Wire[] wires, List<Span> horizontals, List<Span> verticals, PairConsumer consumer) {
+        List<Event> events = new ArrayList<>();
+        for (Span horizontal : horizontals) {
+            events.add(new Event(horizontal.from, HORIZONTAL_START, horizontal));
+            events.add(new Event(horizontal.to, HORIZONTAL_END, horizontal));
+        }
+        for (Span vertical : verticals) {
+            events.add(new Event(vertical.line, VERTICAL, vertical));
+        }
+        //Starts before verticals before ends on same x, so segments touching by endpoints cross too
+        events.sort(Comparator.comparingLong((Event event) -> event.x).thenComparingInt(event -> event.type));
+
+        NavigableMap<Long, List<Span>> activeByY = new TreeMap<>();
+        for (Event event : events) {
+            Span span = event.span;
+            switch (event.type) {
+                case HORIZONTAL_START:
+                    activeByY.computeIfAbsent(span.line, y -> new ArrayList<>()).add(span);
+                    break;
+                case HORIZONTAL_END:
+                    List<Span> active = activeByY.get(span.line);
+                    active.remove(span);
+                    if (active.isEmpty()) {
+                        activeByY.remove(span.line);
+                    }
+                    break;
+                default:
+                    long x = span.line;
+                    for (Map.Entry<Long, List<Span>> row : activeByY.subMap(span.from, true, span.to, true).entrySet()) {
+                        long y = row.getKey();
+                        if (x == 0 && y == 0) {
+                            continue;
+                        }
+                        for (Span horizontal : row.getValue()) {
+                            if (horizontal.wire != span.wire) {
+                                accept(wires, horizontal, span, x, y, consumer);
+                            }
+                        }
+                    }
+            }
+        }
+    }
+
+    //Spans lying on same line walked in order of their start
+    static void overlapParallel(Wire[] wires, List<Span> line, boolean horizontal, PairConsumer consumer) {
+        line.sort(Comparator.comparingLong(span -> span.from));
+        List<Span> open = new ArrayList<>();
+        for (Span span : line) {
+            open.removeIf(previous -> previous.to < span.from);
+            for (Span previous : open) {
+                if (previous.wire != span.wire) {
+                    emitOverlap(wires, previous, span, horizontal, consumer);
+                }
+            }
+            open.add(span);
+        }
+    }
+
+    //Distance is lowest next to axis, steps change linearly along overlap so they are lowest at its ends
+    private static void emitOverlap(Wire[] wires, Span first, Span second, boolean horizontal, PairConsumer consumer) {
+        long from = Math.max(first.from, second.from);
+        long to = Math.min(first.to, second.to);
+        long nearAxis = Math.max(from, Math.min(to, 0));
+        long[] candidates = {from, from + 1, to - 1, to, nearAxis - 1, nearAxis, nearAxis + 1};
+        for (long along : candidates) {
+            if (along < from || along > to) {
+                continue;
+            }
+            long x = horizontal ? along : first.line;
+            long y = horizontal ? first.line : along;
+            if (x == 0 && y == 0) {
+                continue;
+            }
+            accept(wires, first, second, x, y, consumer);
+        }
+    }
+
+    private static void accept(Wire[] wires, Span one, Span other, long x, long y, PairConsumer consumer) {
+        Span first = one.wire < other.wire ? one : other;
+        Span second = one.wire < other.wire ? other : one;
+        consumer.accept(first.wire, second.wire, x, y,
+                        wires[first.wire].stepsAt(first.segment, x, y), wires[second.wire].stepsAt(second.segment, x, y));
+    }
+
+    public static class Crossings {
+        private long closestDistance = Long.MAX_VALUE;
+        private long fewestSteps = Long.MAX_VALUE;
+
+        void accept(long x, long y, long firstSteps, long secondSteps) {
+            closestDistance = Math.min(closestDistance, Math.abs(x) + Math.abs(y));
+            fewestSteps = Math.min(fewestSteps, firstSteps + secondSteps);
+        }
+
+        void merge(Crossings other) {
+            closestDistance = Math.min(closestDistance, other.closestDistance);
+            fewestSteps = Math.min(fewestSteps, other.fewestSteps);
+        }
+
+        public boolean isEmpty() {
+            return closestDistance == Long.MAX_VALUE;
+        }
+
+        //Manhattan distance from central port
+        public long getClosestDistance() {
+            return closestDistance;
+        }
+
+        public long getFewestSteps() {
+            return fewestSteps;
+        }
+    }
+
+    //Horizontal span lies on line y and covers x from..to, vertical one the other way round
+    static class Span {
+        final int wire;
+        final int segment;
+        final long line;
+        final long from;
+        final long to;
+
+        Span(int wire, int segment, long line, long from, long to) {
+            this.wire = wire;
+            this.segment = segment;
+            this.line = line;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static class Event {
+        private final long x;
+        private final int type;
+        private final Span span;
+
+        Event(long x, int type, Span span) {
+            this.x = x;
+            this.type = type;
+            this.span = span;
+        }
+    }
+}
@@ -1,11 +1,5 @@
 package edu.advent.day4;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Predicate;
-
-import static java.lang.String.valueOf;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /*      ---- Part One ----
@@ -45,61 +39,78 @@ import static org.assertj.core.api.Assertions.assertThat;
 */
 public class Day4 {
 
+    //Same checks as isValidPasswordSolutionOne and isValidPasswordSolutionTwo, as automata for counting without enumeration
+    static final PasswordRule PART_ONE_RULE = PasswordRule.nonDecreasing().and(PasswordRule.groupOfLength(2, PasswordRule.NO_LIMIT));
+    static final PasswordRule PART_TWO_RULE = PasswordRule.nonDecreasing().and(PasswordRule.groupOfLength(2, 2));
+
+    //Both parts want non decreasing digits, so scanners jump over decreasing candidates
+    private static final PasswordScanner PART_ONE_SCANNER = new PasswordScanner(true, Day4::isValidPasswordSolutionOne);
+    private static final PasswordScanner PART_TWO_SCANNER = new PasswordScanner(true, Day4::isValidPasswordSolutionTwo);
+
     public static void main(String[] args) {
         assertThat(calculatePart1(248345, 746315)).isEqualTo(1019);
 
         assertThat(calculatePart2(248345, 746315)).isEqualTo(660);
+
+        assertThat(calculatePart1Parallel(248345, 746315)).isEqualTo(1019);
+        assertThat(calculatePart2Parallel(248345, 746315)).isEqualTo(660);
+
+        assertThat(calculatePart1Counted(248345, 746315)).isEqualTo(1019);
+        assertThat(calculatePart2Counted(248345, 746315)).isEqualTo(660);
     }
 
-    private static int calculatePart1(int leftInclusive, int rightInclusive) {
-        return calculate(leftInclusive, rightInclusive, Day4::isValidPasswordSolutionOne);
+    static long calculatePart1Counted(long leftInclusive, long rightInclusive) {
+        return PasswordCounter.count(leftInclusive, rightInclusive, PART_ONE_RULE);
     }
 
-    private static int calculatePart2(int leftInclusive, int rightInclusive) {
-        return calculate(leftInclusive, rightInclusive, Day4::isValidPasswordSolutionTwo);
+    static long calculatePart2Counted(long leftInclusive, long rightInclusive) {
+        return PasswordCounter.count(leftInclusive, rightInclusive, PART_TWO_RULE);
     }
 
-    private static int calculate(int leftInc, int rightInc, Predicate<String> passwordCheck) {
-        int possiblePasswords = 0;
-        for (int password = leftInc; password <= rightInc; password++) {
-            if (passwordCheck.test(valueOf(password))) {
-                possiblePasswords++;
-            }
-        }
-        return possiblePasswords;
+    static int calculatePart1(int leftInclusive, int rightInclusive) {
+        return (int) PART_ONE_SCANNER.count(leftInclusive, rightInclusive);
+    }
+
+    static int calculatePart2(int leftInclusive, int rightInclusive) {
+        return (int) PART_TWO_SCANNER.count(leftInclusive, rightInclusive);
+    }
+
+    static long calculatePart1Parallel(long leftInclusive, long rightInclusive) {
+        return PART_ONE_SCANNER.countParallel(leftInclusive, rightInclusive);
+    }
+
+    static long calculatePart2Parallel(long leftInclusive, long rightInclusive) {
+        return PART_TWO_SCANNER.countParallel(leftInclusive, rightInclusive);
     }
 
-    private static boolean isValidPasswordSolutionOne(String pass) {
-        int[] nums = Arrays.stream(pass.split("")).mapToInt(Integer::parseInt).toArray();
+    private static boolean isValidPasswordSolutionOne(int[] digits) {
         boolean foundAdjacentTwo = false;
-        int currentMax = nums[0];
-        for (int i = 1; i < nums.length; i++) {
-            if (nums[i - 1] == (nums[i])) {
-                foundAdjacentTwo = true;
-            }
-            if (nums[i] < currentMax) {
+        for (int i = 1; i < digits.length; i++) {
+            if (digits[i] < digits[i - 1]) {
                 return false;
-            } else {
-                currentMax = nums[i];
+            }
+            if (digits[i] == digits[i - 1]) {
+                foundAdjacentTwo = true;
             }
         }
         return foundAdjacentTwo;
     }
 
-    private static boolean isValidPasswordSolutionTwo(String pass) {
-        int[] password = Arrays.stream(pass.split("")).mapToInt(Integer::parseInt).toArray();
-        Map<Integer, Integer> occurrences = new HashMap<>();
-        int currentMax = password[0];
-        for (int i = 1; i < password.length; i++) {
-            if (password[i] == password[i - 1]) {
-                occurrences.compute(password[i], (k, v) -> (v == null) ? 2 : v + 1);
-            }
-            if (password[i] < currentMax) {
+    //Some group of same digits is exactly two long
+    private static boolean isValidPasswordSolutionTwo(int[] digits) {
+        int groupLength = 1;
+        boolean foundGroupOfTwo = false;
+        for (int i = 1; i < digits.length; i++) {
+            if (digits[i] < digits[i - 1]) {
                 return false;
+            }
+            if (digits[i] == digits[i - 1]) {
+                groupLength++;
             } else {
-                currentMax = password[i];
+                foundGroupOfTwo |= groupLength == 2;
+                groupLength = 1;
             }
         }
-        return occurrences.containsValue(2);
+        return foundGroupOfTwo || groupLength == 2;
     }
 }
@@ -0,0 +1,83 @@
+package edu.advent.day4;
+
+import java.util.Arrays;
+
+//Counts valid passwords in range without listing them, dynamic programming over digits of range ends.
+//Work grows with number of digits times automaton states, not with width of range
+public class PasswordCounter {
+
+    //Up to 18 digits count always fits, 19 digit ones still do as count can not exceed bound
+    public static long count(long leftInclusive, long rightInclusive, PasswordRule rule) {
+        if (leftInclusive < 0 || rightInclusive < leftInclusive) {
+            throw new IllegalArgumentException("Invalid range " + leftInclusive + ".." + rightInclusive);
+        }
+        return countUpTo(rightInclusive, rule) - countUpTo(leftInclusive - 1, rule);
+    }
+
+    //Valid passwords within 0..bound
+    static long countUpTo(long bound, PasswordRule rule) {
+        if (bound < 0) {
+            return 0;
+        }
+        //Zero is single digit 0, every other number starts with its first non zero digit
+        long count = isAlive(rule.next(rule.start(), 0)) && rule.accepts(rule.next(rule.start(), 0)) ? 1 : 0;
+        if (bound == 0) {
+            return count;
+        }
+        char[] digits = Long.toString(bound).toCharArray();
+        //Numbers already below bound by their prefix, per automaton state
+        long[] below = new long[rule.states()];
+        long[] nextBelow = new long[rule.states()];
+        //Prefix equal to bound so far
+        int tight = rule.start();
+        for (int position = 0; position < digits.length; position++) {
+            int boundDigit = digits[position] - '0';
+            Arrays.fill(nextBelow, 0);
+            for (int state = 0; state < below.length; state++) {
+                if (below[state] == 0) {
+                    continue;
+                }
+                for (int digit = 0; digit <= 9; digit++) {
+                    int next = rule.next(state, digit);
+                    if (isAlive(next)) {
+                        nextBelow[next] += below[state];
+                    }
+                }
+            }
+            //Shorter numbers than bound start here
+            if (position > 0) {
+                for (int digit = 1; digit <= 9; digit++) {
+                    addOne(nextBelow, rule.next(rule.start(), digit));
+                }
+            }
+            if (isAlive(tight)) {
+                for (int digit = position == 0 ? 1 : 0; digit < boundDigit; digit++) {
+                    addOne(nextBelow, rule.next(tight, digit));
+                }
+                tight = rule.next(tight, boundDigit);
+            }
+            long[] swap = below;
+            below = nextBelow;
+            nextBelow = swap;
+        }
+        for (int state = 0; state < below.length; state++) {
+            if (rule.accepts(state)) {
+                count += below[state];
+            }
+        }
+        if (isAlive(tight) && rule.accepts(tight)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void addOne(long[] counts, int state) {
+        if (isAlive(state)) {
+            counts[state]++;
+        }
+    }
+
+    private static boolean isAlive(int state) {
+        return state >= 0;
+    }
+}
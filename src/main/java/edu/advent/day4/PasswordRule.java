@@ -0,0 +1,114 @@
+package edu.advent.day4;
+
+//Rule as finite automaton fed with digits from left to right, leading zeros are never fed.
+//States are numbered 0 until states() - 1, negative state means password can not be valid anymore whatever follows
+public interface PasswordRule {
+
+    int NO_LIMIT = Integer.MAX_VALUE;
+
+    int states();
+
+    int start();
+
+    int next(int state, int digit);
+
+    boolean accepts(int state);
+
+    //Both rules fed with same digits, state is pair of their states
+    default PasswordRule and(PasswordRule other) {
+        PasswordRule first = this;
+        return new PasswordRule() {
+            @Override
+            public int states() {
+                return first.states() * other.states();
+            }
+
+            @Override
+            public int start() {
+                return first.start() * other.states() + other.start();
+            }
+
+            @Override
+            public int next(int state, int digit) {
+                int firstNext = first.next(state / other.states(), digit);
+                int otherNext = other.next(state % other.states(), digit);
+                return firstNext < 0 || otherNext < 0 ? -1 : firstNext * other.states() + otherNext;
+            }
+
+            @Override
+            public boolean accepts(int state) {
+                return first.accepts(state / other.states()) && other.accepts(state % other.states());
+            }
+        };
+    }
+
+    //State is last digit, first digit can not be lower than zero
+    static PasswordRule nonDecreasing() {
+        return new PasswordRule() {
+            @Override
+            public int states() {
+                return 10;
+            }
+
+            @Override
+            public int start() {
+                return 0;
+            }
+
+            @Override
+            public int next(int state, int digit) {
+                return digit >= state ? digit : -1;
+            }
+
+            @Override
+            public boolean accepts(int state) {
+                return true;
+            }
+        };
+    }
+
+    //Some group of same adjacent digits is min..max long, NO_LIMIT as max for at least min.
+    //State keeps last digit, length of its group counted up to one past what matters and whether some group already matched
+    static PasswordRule groupOfLength(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid group length " + min + ".." + max);
+        }
+        int cap = max == NO_LIMIT ? min : max + 1;
+        int noDigit = 10;
+        return new PasswordRule() {
+            @Override
+            public int states() {
+                return 11 * (cap + 1) * 2;
+            }
+
+            @Override
+            public int start() {
+                return state(noDigit, 0, false);
+            }
+
+            @Override
+            public int next(int state, int digit) {
+                int last = state / ((cap + 1) * 2);
+                int length = state / 2 % (cap + 1);
+                boolean matched = state % 2 == 1;
+                if (digit == last) {
+                    return state(digit, Math.min(length + 1, cap), matched);
+                }
+                return state(digit, 1, matched || matches(length));
+            }
+
+            @Override
+            public boolean accepts(int state) {
+                return state % 2 == 1 || matches(state / 2 % (cap + 1));
+            }
+
+            private boolean matches(int length) {
+                return length >= min && length <= max;
+            }
+
+            private int state(int last, int length, boolean matched) {
+                return (last * (cap + 1) + length) * 2 + (matched ? 1 : 0);
+            }
+        };
+    }
+}
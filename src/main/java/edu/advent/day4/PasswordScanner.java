@@ -0,0 +1,163 @@
+package edu.advent.day4;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+//Checks every candidate for rules counter can not express. Digits are kept in one array moved forward in place,
+//with non decreasing only candidates whole runs of decreasing numbers are jumped over instead of tested
+public class PasswordScanner {
+
+    //Digits from most significant one, array is as long as candidate and reused for next one
+    public interface DigitRule {
+        boolean test(int[] digits);
+    }
+
+    private final boolean nonDecreasingOnly;
+    private final DigitRule rule;
+
+    public PasswordScanner(boolean nonDecreasingOnly, DigitRule rule) {
+        this.nonDecreasingOnly = nonDecreasingOnly;
+        this.rule = rule;
+    }
+
+    public long count(long leftInclusive, long rightInclusive) {
+        checkRange(leftInclusive, rightInclusive);
+        return scan(leftInclusive, rightInclusive);
+    }
+
+    public long countParallel(long leftInclusive, long rightInclusive) {
+        checkRange(leftInclusive, rightInclusive);
+        return ForkJoinPool.commonPool().invoke(new RangeScan(leftInclusive, rightInclusive));
+    }
+
+    private static void checkRange(long leftInclusive, long rightInclusive) {
+        if (leftInclusive < 0 || rightInclusive < leftInclusive) {
+            throw new IllegalArgumentException("Invalid range " + leftInclusive + ".." + rightInclusive);
+        }
+    }
+
+    //Range is cut where number of digits changes, so digits array keeps its length while scanning
+    private long scan(long leftInclusive, long rightInclusive) {
+        long count = 0;
+        long from = leftInclusive;
+        while (from <= rightInclusive) {
+            int length = Long.toString(from).length();
+            long lastOfLength = length >= 19 ? Long.MAX_VALUE : pow10(length) - 1;
+            long to = Math.min(rightInclusive, lastOfLength);
+            count += scan(from, to, length);
+            if (to == Long.MAX_VALUE) {
+                break;
+            }
+            from = to + 1;
+        }
+        return count;
+    }
+
+    private long scan(long from, long to, int length) {
+        int[] digits = digitsOf(from);
+        long value = nonDecreasingOnly ? raiseToNonDecreasing(digits) : from;
+        long count = 0;
+        while (!isBeyond(value, to)) {
+            if (rule.test(digits)) {
+                count++;
+            }
+            if (value == to) {
+                break;
+            }
+            int position = length - 1;
+            while (position >= 0 && digits[position] == 9) {
+                position--;
+            }
+            if (position < 0) {
+                break;
+            }
+            digits[position]++;
+            if (position == length - 1) {
+                value++;
+            } else {
+                //Carry, with non decreasing only candidates digits after it can not be lower than it
+                int fill = nonDecreasingOnly ? digits[position] : 0;
+                for (int next = position + 1; next < length; next++) {
+                    digits[next] = fill;
+                }
+                value = valueOf(digits);
+            }
+        }
+        return count;
+    }
+
+    //Lowest non decreasing number not below given digits, everything after first decrease is lifted to digit before it
+    private static long raiseToNonDecreasing(int[] digits) {
+        for (int position = 1; position < digits.length; position++) {
+            if (digits[position] < digits[position - 1]) {
+                for (int next = position; next < digits.length; next++) {
+                    digits[next] = digits[position - 1];
+                }
+                break;
+            }
+        }
+        return valueOf(digits);
+    }
+
+    private static int[] digitsOf(long value) {
+        int[] digits = new int[Long.toString(value).length()];
+        for (int position = digits.length - 1; position >= 0; position--) {
+            digits[position] = (int) (value % 10);
+            value /= 10;
+        }
+        return digits;
+    }
+
+    //Lifted 19 digit numbers can pass Long.MAX_VALUE, they wrap below zero
+    private static long valueOf(int[] digits) {
+        long value = 0;
+        for (int digit : digits) {
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isBeyond(long value, long to) {
+        return value < 0 || value > to;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+
+    //Halves scanned by separate workers. With non decreasing only candidates each part first jumps to its first candidate,
+    //so wide ranges without any are not split further
+    private class RangeScan extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+        private static final long CHUNK = 1 << 20;
+
+        private final long from;
+        private final long to;
+
+        RangeScan(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            long start = nonDecreasingOnly ? raiseToNonDecreasing(digitsOf(from)) : from;
+            if (isBeyond(start, to)) {
+                return 0L;
+            }
+            if (to - start < CHUNK) {
+                return scan(start, to);
+            }
+            long middle = start + (to - start) / 2;
+            RangeScan left = new RangeScan(start, middle);
+            left.fork();
+            long right = new RangeScan(middle + 1, to).compute();
+            return left.join() + right;
+        }
+    }
+}
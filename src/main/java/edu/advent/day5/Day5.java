@@ -1,8 +1,12 @@
 package edu.advent.day5;
 
+import edu.advent.intcode.IntcodeCompiler;
+import edu.advent.intcode.IntcodeComputer;
+import edu.advent.intcode.IntcodeProfiler;
+import edu.advent.intcode.Memory;
 import edu.advent.utils.InputLoader;
 
-import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -143,82 +147,41 @@ public class Day5 {
         long[] input = InputLoader.readComaSeparatedValues("day5");
         assertThat(calculatePart1(input)).isEqualTo(5182797);
         assertThat(calculatePart2(input)).isEqualTo(12077198);
+
+        IntcodeComputer blockCached = new IntcodeComputer(input);
+        blockCached.enableBlockCache();
+        assertThat(calculateCommonPath(blockCached, 5)).isEqualTo(12077198);
+
+        //Profiled run has to give same answer, every retired instruction is counted under its opcode
+        IntcodeComputer profiled = new IntcodeComputer(input);
+        IntcodeProfiler profiler = new IntcodeProfiler();
+        profiled.setProfiler(profiler);
+        assertThat(calculateCommonPath(profiled, 5)).isEqualTo(12077198);
+        assertThat(profiler.getRetiredInstructions()).isPositive()
+                                                    .isEqualTo(IntStream.of(1, 2, 3, 4, 5, 6, 7, 8, 99).mapToLong(profiler::getRetired).sum());
+
+        //Compiled backend has to give same answers, skipped when running without system java compiler
+        IntcodeCompiler.compile(Memory.of(input)).ifPresent(compiled -> {
+            assertThat(calculateCommonPath(compiled.newComputer(), 1)).isEqualTo(5182797);
+            assertThat(calculateCommonPath(compiled.newComputer(), 5)).isEqualTo(12077198);
+        });
     }
 
-    private static long calculatePart1(long[] instructions) {
-        return calculateCommonPath(instructions, 1);
+    static long calculatePart1(long[] instructions) {
+        return calculateCommonPath(new IntcodeComputer(instructions), 1);
     }
 
-    private static long calculatePart2(long[] instructions) {
-        return calculateCommonPath(instructions, 5);
+    static long calculatePart2(long[] instructions) {
+        return calculateCommonPath(new IntcodeComputer(instructions), 5);
     }
 
-    @SuppressWarnings("DuplicatedCode")
-    private static long calculateCommonPath(long[] input, long id) {
-        long[] instructions = Arrays.copyOf(input, input.length);
-        int movePointer = 0;
-        for (int i = 0; ; i += movePointer) {
-            String params = String.valueOf(instructions[i]);
-            int opcode = Character.getNumericValue(params.charAt(params.length() - 1));
-            if (params.equals("99")) {
-                break;
-            }
-            if (opcode == 1 || opcode == 2) { //BASIC DAY2
-                int num1Pos = (int) instructions[i + 1];
-                int num2Pos = (int) instructions[i + 2];
-                int outputPos = (int) instructions[i + 3];
-                movePointer = 4;
-                if (opcode == 1) {
-                    instructions[outputPos] = (positionMode(params, 1) ? instructions[num1Pos] : instructions[i + 1]) +
-                            (positionMode(params, 2) ? instructions[num2Pos] : instructions[i + 2]);
-                } else {
-                    instructions[outputPos] = (positionMode(params, 1) ? instructions[num1Pos] : instructions[i + 1]) *
-                            (positionMode(params, 2) ? instructions[num2Pos] : instructions[i + 2]);
-                }
-            } else if (opcode == 3 || opcode == 4) { //ADDITIONAL FEATURES FROM PART 1
-                movePointer = 2;
-                int index = (int) instructions[i + 1];
-                boolean isPosition = positionMode(params, 1);
-                if (opcode == 3) {
-                    instructions[index] = id;
-                } else {
-                    long code = isPosition ? instructions[index] : instructions[i + 1];
-                    if (code != 0) {
-                        return code;
-                    }
-                }
-            } else { //ADDITIONAL FEATURES FROM PART 2
-                int firstParam = positionMode(params, 1) ? (int) instructions[(int) instructions[i + 1]] : (int) instructions[i + 1];
-                int secondParam = positionMode(params, 2) ? (int) instructions[(int) instructions[i + 2]] : (int) instructions[i + 2];
-                if (opcode == 5 || opcode == 6) {
-                    if ((opcode == 5 && firstParam != 0) || (opcode == 6 && firstParam == 0)) {
-                        i = secondParam;
-                        movePointer = 0;
-                    } else {
-                        movePointer = 3;
-                    }
-                } else if (opcode == 7 || opcode == 8) {
-                    movePointer = 4;
-                    int thirdParam = (int) instructions[i + 3];
-                    if (opcode == 7) {
-                        if (firstParam < secondParam) instructions[thirdParam] = 1;
-                        else instructions[thirdParam] = 0;
-                    } else {
-                        if (firstParam == secondParam) instructions[thirdParam] = 1;
-                        else instructions[thirdParam] = 0;
-                    }
-                }
+    private static long calculateCommonPath(IntcodeComputer computer, long id) {
+        computer.provideInput(id);
+        while (computer.run() == IntcodeComputer.State.OUTPUT) {
+            if (computer.getOutput() != 0) {
+                return computer.getOutput();
             }
         }
         throw new IllegalStateException("Should return exit code != 0");
     }
-
-    private static boolean positionMode(String params, int position) {
-        String[] p = params.split("");
-        int modeIdx = p.length - 2 - position;
-        if (modeIdx >= 0) {
-            return p[modeIdx].equals("0");
-        }
-        return true;
-    }
 }
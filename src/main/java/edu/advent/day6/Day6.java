@@ -1,10 +1,9 @@
 package edu.advent.day6;
 
 import edu.advent.utils.InputLoader;
-import io.vavr.collection.HashSet;
-import io.vavr.collection.Set;
+import edu.advent.utils.LineCursor;
 
-import java.util.*;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -132,116 +131,53 @@ public class Day6 {
 
         assertThat(calculatePart1(input)).isEqualTo(142497);
 
+        assertThat(calculatePart1Parallel(input)).isEqualTo(142497);
+
         assertThat(calculatePart2(input)).isEqualTo(301);
-    }
 
-    private static long calculatePart1(List<String> input) {
-        long orbitsCounter = 0;
-        for (Planet planet : connectPlanets(input)) {
-            Planet onOrbit = planet.getOnOrbit();
-            while (onOrbit != null) {
-                orbitsCounter++;
-                onOrbit = onOrbit.getOnOrbit();
-            }
+        OrbitMap map = OrbitMap.of(input);
+        int[] youAndSan = {existing(map, "YOU"), existing(map, "SAN")};
+        int[] sanAndYou = {youAndSan[1], youAndSan[0]};
+        assertThat(new OrbitTransfers(map).transfers(youAndSan, sanAndYou)).containsExactly(301, 301);
+
+        try (LineCursor orbits = InputLoader.streamLines("day6")) {
+            assertThat(calculatePart1(orbits)).isEqualTo(142497);
+        }
+        try (LineCursor orbits = InputLoader.streamLines("day6")) {
+            assertThat(calculatePart2(orbits)).isEqualTo(301);
         }
-        return orbitsCounter;
     }
 
-    private static long calculatePart2(List<String> input) {
-        List<Planet> planets = connectPlanets(input);
-        Planet you = findByName("YOU", planets).get();
-        Planet san = findByName("SAN", planets).get();
-        Map<Planet, Integer> allOrbitsAndMovesYou = calculateOrbitsAndMoves(you);
-        Map<Planet, Integer> allOrbitsAndMovesSan = calculateOrbitsAndMoves(san);
-        Set<Planet> commonOrbits = HashSet.ofAll(allOrbitsAndMovesYou.keySet())
-                                          .intersect(HashSet.ofAll(allOrbitsAndMovesSan.keySet()));
-        return commonOrbits.map(p -> allOrbitsAndMovesYou.get(p) + allOrbitsAndMovesSan.get(p))
-                           .min().get();
+    static long calculatePart1(List<String> input) {
+        return OrbitDepths.checksum(OrbitMap.of(input));
     }
 
-    private static Map<Planet, Integer> calculateOrbitsAndMoves(Planet starting) {
-        Map<Planet, Integer> orbitsAndMoves = new HashMap<>();
-        Planet onOrbit = starting.getOnOrbit().getOnOrbit();
-        int moveCounter = 0;
-        while (onOrbit != null) {
-            moveCounter++;
-            orbitsAndMoves.put(onOrbit, moveCounter);
-            onOrbit = onOrbit.getOnOrbit();
-        }
-        return orbitsAndMoves;
+    //Orbits are connected as they are read, only names and ids are kept in memory
+    static long calculatePart1(LineCursor input) {
+        return OrbitDepths.checksum(OrbitMap.of(input));
     }
 
-    private static List<Planet> connectPlanets(List<String> orbitsMap) {
-        List<Planet> planets = new ArrayList<>();
-        for (String orbit : orbitsMap) {
-            String onOrbitName = orbit.split("\\)")[0];
-            String planetName = orbit.split("\\)")[1];
-            Optional<Planet> planet = findByName(planetName, planets);
-            Optional<Planet> orbitPlanet = findByName(onOrbitName, planets);
-            if (planet.isPresent()) {
-                if (orbitPlanet.isPresent()) {
-                    planet.get().setOnOrbit(orbitPlanet.get());
-                } else {
-                    Planet newOrbitPlanet = new Planet();
-                    planets.add(newOrbitPlanet);
-                    newOrbitPlanet.setName(onOrbitName);
-                    planet.get().setOnOrbit(newOrbitPlanet);
-                }
-            } else {
-                Planet newPlanet = new Planet();
-                newPlanet.setName(planetName);
-                planets.add(newPlanet);
-                if (orbitPlanet.isPresent()) {
-                    newPlanet.setOnOrbit(orbitPlanet.get());
-                } else {
-                    Planet newOrbitPlanet = new Planet();
-                    planets.add(newOrbitPlanet);
-                    newOrbitPlanet.setName(onOrbitName);
-                    newPlanet.setOnOrbit(newOrbitPlanet);
-                }
-            }
-        }
-        return planets;
+    static long calculatePart1Parallel(List<String> input) {
+        return OrbitDepths.checksumParallel(OrbitMap.of(input));
     }
 
-    private static Optional<Planet> findByName(String name, List<Planet> collection) {
-        return collection.stream()
-                         .filter(n -> n.getName().equals(name))
-                         .findFirst();
+    static long calculatePart2(List<String> input) {
+        return calculateTransfers(OrbitMap.of(input));
     }
 
-    private static class Planet {
-        private String name;
-        private Planet onOrbit;
-
-        public String getName() {
-            return name;
-        }
-
-        public void setName(String name) {
-            this.name = name;
-        }
-
-        public Planet getOnOrbit() {
-            return onOrbit;
-        }
-
-        public void setOnOrbit(Planet onOrbit) {
-            this.onOrbit = onOrbit;
-        }
+    static long calculatePart2(LineCursor input) {
+        return calculateTransfers(OrbitMap.of(input));
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Planet planet = (Planet) o;
-            return Objects.equals(name, planet.name) &&
-                    Objects.equals(onOrbit, planet.onOrbit);
-        }
+    private static long calculateTransfers(OrbitMap map) {
+        return new OrbitTransfers(map).transfers(existing(map, "YOU"), existing(map, "SAN"));
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(name, onOrbit);
+    private static int existing(OrbitMap map, String name) {
+        int id = map.id(name);
+        if (id == OrbitMap.NONE) {
+            throw new IllegalArgumentException("No " + name + " on map");
         }
+        return id;
     }
 }
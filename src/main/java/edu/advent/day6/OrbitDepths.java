@@ -0,0 +1,92 @@
+package edu.advent.day6;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+//Depth of object is count of its direct and indirect orbits, every depth is computed once from depth of object it orbits
+public class OrbitDepths {
+
+    private static final int UNKNOWN = -1;
+    private static final int VISITING = -2;
+    //Smaller levels are not worth handing to other workers
+    private static final int PARALLEL_LEVEL = 1 << 12;
+
+    //Climbs only until object with known depth, then fills depths on way back down
+    public static int[] of(OrbitMap map) {
+        int[] depths = new int[map.size()];
+        Arrays.fill(depths, UNKNOWN);
+        int[] path = new int[map.size()];
+        for (int object = 0; object < depths.length; object++) {
+            int pathLength = 0;
+            int current = object;
+            while (current != OrbitMap.NONE && depths[current] < 0) {
+                if (depths[current] == VISITING) {
+                    throw new IllegalStateException("Orbits form a cycle through " + map.name(current));
+                }
+                depths[current] = VISITING;
+                path[pathLength++] = current;
+                current = map.parent(current);
+            }
+            int depth = current == OrbitMap.NONE ? -1 : depths[current];
+            while (pathLength > 0) {
+                depths[path[--pathLength]] = ++depth;
+            }
+        }
+        return depths;
+    }
+
+    public static long checksum(OrbitMap map) {
+        long checksum = 0;
+        for (int depth : of(map)) {
+            checksum += depth;
+        }
+        return checksum;
+    }
+
+    //Level by level from objects orbiting nothing, children of wide levels are gathered by separate workers
+    public static long checksumParallel(OrbitMap map) {
+        int size = map.size();
+        //Children of object i are children[childStart[i]..childStart[i + 1])
+        int[] childStart = new int[size + 1];
+        for (int object = 0; object < size; object++) {
+            if (map.parent(object) != OrbitMap.NONE) {
+                childStart[map.parent(object) + 1]++;
+            }
+        }
+        for (int object = 0; object < size; object++) {
+            childStart[object + 1] += childStart[object];
+        }
+        int[] children = new int[childStart[size]];
+        int[] filled = Arrays.copyOf(childStart, size);
+        for (int object = 0; object < size; object++) {
+            if (map.parent(object) != OrbitMap.NONE) {
+                children[filled[map.parent(object)]++] = object;
+            }
+        }
+
+        int[] level = IntStream.range(0, size).filter(object -> map.parent(object) == OrbitMap.NONE).toArray();
+        long checksum = 0;
+        int visited = 0;
+        for (int depth = 0; level.length > 0; depth++) {
+            checksum += (long) depth * level.length;
+            visited += level.length;
+            int[] current = level;
+            //Where children of each object of level start in next level
+            int[] offsets = new int[current.length + 1];
+            for (int i = 0; i < current.length; i++) {
+                offsets[i + 1] = offsets[i] + childStart[current[i] + 1] - childStart[current[i]];
+            }
+            int[] next = new int[offsets[current.length]];
+            IntStream indexes = IntStream.range(0, current.length);
+            (current.length >= PARALLEL_LEVEL ? indexes.parallel() : indexes).forEach(i -> {
+                int from = childStart[current[i]];
+                System.arraycopy(children, from, next, offsets[i], childStart[current[i] + 1] - from);
+            });
+            level = next;
+        }
+        if (visited != size) {
+            throw new IllegalStateException("Orbits form a cycle");
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,142 @@
+package edu.advent.day6;
+
+import edu.advent.utils.LineCursor;
+
+import java.util.Arrays;
+import java.util.List;
+
+//Orbit tree with names interned into dense ids, id of object it orbits kept in int[] instead of object links.
+//Names are looked up in open addressing table straight from line being read, only new names are copied into String
+public class OrbitMap {
+
+    public static final int NONE = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] names = new String[MIN_CAPACITY];
+    private int[] hashes = new int[MIN_CAPACITY];
+    private int[] parents = new int[MIN_CAPACITY];
+    //Id + 1 per slot, zero marks empty slot
+    private int[] slots = new int[MIN_CAPACITY * 2];
+    private int size;
+
+    public static OrbitMap of(List<? extends CharSequence> orbits) {
+        OrbitMap map = new OrbitMap();
+        for (CharSequence orbit : orbits) {
+            map.addOrbit(orbit);
+        }
+        return map;
+    }
+
+    public static OrbitMap of(LineCursor orbits) {
+        OrbitMap map = new OrbitMap();
+        while (orbits.next()) {
+            map.addOrbit(orbits.line());
+        }
+        return map;
+    }
+
+    //Orbit like AAA)BBB, BBB orbits AAA
+    public void addOrbit(CharSequence orbit) {
+        int separator = indexOf(orbit, ')');
+        int center = intern(orbit, 0, separator);
+        int object = intern(orbit, separator + 1, orbit.length());
+        if (parents[object] != NONE && parents[object] != center) {
+            throw new IllegalArgumentException(names[object] + " already orbits " + names[parents[object]]);
+        }
+        parents[object] = center;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //NONE when name is not on map
+    public int id(CharSequence name) {
+        int hash = hash(name, 0, name.length());
+        for (int slot = hash & (slots.length - 1); slots[slot] != 0; slot = (slot + 1) & (slots.length - 1)) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(names[id], name, 0, name.length())) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    //NONE for objects not orbiting anything
+    public int parent(int id) {
+        return parents[id];
+    }
+
+    private int intern(CharSequence text, int from, int to) {
+        int hash = hash(text, from, to);
+        int slot = hash & (slots.length - 1);
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && matches(names[id], text, from, to)) {
+                return id;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            parents = Arrays.copyOf(parents, size * 2);
+        }
+        int id = size++;
+        names[id] = text.subSequence(from, to).toString();
+        hashes[id] = hash;
+        parents[id] = NONE;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & (slots.length - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    //Same as String.hashCode, then mixed so low bits picking slot depend on whole name
+    private static int hash(CharSequence text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence text, int from, int to) {
+        if (name.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, char c) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid orbit " + text);
+    }
+}
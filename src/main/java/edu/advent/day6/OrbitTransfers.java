@@ -0,0 +1,88 @@
+package edu.advent.day6;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+//Lowest common ancestor by binary lifting, jumps[k][object] is object 2^k orbits above it.
+//Built once in n log(depth), every query then takes log(depth) jumps
+public class OrbitTransfers {
+
+    //Smaller batches are not worth handing to other workers
+    private static final int PARALLEL_BATCH = 1 << 12;
+
+    private final OrbitMap map;
+    private final int[] depths;
+    private final int[][] jumps;
+
+    public OrbitTransfers(OrbitMap map) {
+        this.map = map;
+        this.depths = OrbitDepths.of(map);
+        int maxDepth = Arrays.stream(depths).max().orElse(0);
+        int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+        jumps = new int[levels][];
+        jumps[0] = IntStream.range(0, map.size()).map(map::parent).toArray();
+        for (int level = 1; level < levels; level++) {
+            int[] half = jumps[level - 1];
+            int[] jump = new int[half.length];
+            Arrays.parallelSetAll(jump, object -> half[object] == OrbitMap.NONE ? OrbitMap.NONE : half[half[object]]);
+            jumps[level] = jump;
+        }
+    }
+
+    //NONE when objects are on separate maps
+    public int commonAncestor(int first, int second) {
+        if (depths[first] < depths[second]) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        first = climb(first, depths[first] - depths[second]);
+        if (first == second) {
+            return first;
+        }
+        for (int level = jumps.length - 1; level >= 0; level--) {
+            if (jumps[level][first] != jumps[level][second]) {
+                first = jumps[level][first];
+                second = jumps[level][second];
+            }
+        }
+        return jumps[0][first];
+    }
+
+    //Moves between objects first and second orbit
+    public int transfers(int first, int second) {
+        int from = orbited(first);
+        int to = orbited(second);
+        int common = commonAncestor(from, to);
+        if (common == OrbitMap.NONE) {
+            throw new IllegalArgumentException(map.name(first) + " and " + map.name(second) + " are not on same map");
+        }
+        return depths[from] + depths[to] - 2 * depths[common];
+    }
+
+    //Query i asks for transfers between firsts[i] and seconds[i], big batches are answered by separate workers
+    public int[] transfers(int[] firsts, int[] seconds) {
+        if (firsts.length != seconds.length) {
+            throw new IllegalArgumentException("Every query needs both objects");
+        }
+        IntStream queries = IntStream.range(0, firsts.length);
+        return (firsts.length >= PARALLEL_BATCH ? queries.parallel() : queries).map(i -> transfers(firsts[i], seconds[i])).toArray();
+    }
+
+    private int climb(int object, int distance) {
+        for (int level = 0; distance > 0; level++, distance >>>= 1) {
+            if ((distance & 1) != 0) {
+                object = jumps[level][object];
+            }
+        }
+        return object;
+    }
+
+    private int orbited(int object) {
+        int parent = map.parent(object);
+        if (parent == OrbitMap.NONE) {
+            throw new IllegalArgumentException(map.name(object) + " does not orbit anything");
+        }
+        return parent;
+    }
+}
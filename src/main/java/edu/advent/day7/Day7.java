@@ -1,12 +1,19 @@
 package edu.advent.day7;
 
+import edu.advent.intcode.IntcodeCompiler;
+import edu.advent.intcode.IntcodeComputer;
+import edu.advent.intcode.IntcodeComputer.State;
+import edu.advent.intcode.IntcodePipeline;
+import edu.advent.intcode.Memory;
 import edu.advent.utils.InputLoader;
-import io.vavr.Function2;
-import io.vavr.Tuple;
-import io.vavr.Tuple2;
-import io.vavr.collection.List;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -120,137 +127,219 @@ import static org.assertj.core.api.Assertions.assertThat;
 */
 public class Day7 {
 
+    private static final int STAGE_CACHE_CAPACITY = 1024;
+    //Several permutation chunks per worker so uneven loop lengths still spread across them
+    private static final int CHUNKS_PER_WORKER = 4;
+
     public static void main(String[] args) {
         long[] input = InputLoader.readComaSeparatedValues("day7");
 
-        assertThat(calculatePart1(input)).isEqualTo(17790);
-        assertThat(calculatePart2(input)).isEqualTo(19384820);
+        assertThat(calculatePart1(input, false)).isEqualTo(17790);
+        assertThat(calculatePart2(input, false)).isEqualTo(19384820);
+
+        assertThat(calculatePart1(input, true)).isEqualTo(17790);
+        StageCache stageCache = new StageCache(Memory.of(input), STAGE_CACHE_CAPACITY);
+        assertThat(calculatePart1Memoized(input, stageCache)).isEqualTo(17790);
+        assertThat(stageCache.getHits()).isPositive();
+        assertThat(calculatePart2(input, true)).isEqualTo(19384820);
+
+        assertThat(calculatePrefixShared(input, new int[]{0, 1, 2, 3, 4}, false)).isEqualTo(17790);
+        assertThat(calculatePrefixShared(input, new int[]{9, 7, 8, 5, 6}, true)).isEqualTo(19384820);
+
+        assertThat(calculatePart2WarmStarted(input, false)).isEqualTo(19384820);
+        assertThat(calculatePart2WarmStarted(input, true)).isEqualTo(19384820);
+
+        assertThat(calculatePart2Pipelined(input)).isEqualTo(19384820);
+        assertThat(calculatePart2Compiled(input)).isEqualTo(19384820);
+    }
+
+    static long calculatePart1(long[] input, boolean parallel) {
+        return calculateCommonPath(input, new int[]{0, 1, 2, 3, 4}, Day7::calculateAmplifiedSignalNoFeedback, parallel);
     }
 
-    private static long calculatePart1(long[] input) {
-        return calculateCommonPath(input, List.of(0, 1, 2, 3, 4), Day7::calculateAmplifiedSignalNoFeedback);
+    //Stage output depends only on (program, phase, input signal), repeating pairs across permutations run once
+    private static long calculatePart1Memoized(long[] input, StageCache stageCache) {
+        return calculateCommonPath(input, new int[]{0, 1, 2, 3, 4}, (phaseSetting, ignored) ->
+                calculateAmplifiedSignalNoFeedback(phaseSetting, stageCache), false);
     }
 
-    private static long calculatePart2(long[] instructions) {
-        return calculateCommonPath(instructions, List.of(9, 7, 8, 5, 6), Day7::calculateAmplifiedSignalFeedback);
+    static long calculatePart2(long[] instructions, boolean parallel) {
+        return calculateCommonPath(instructions, new int[]{9, 7, 8, 5, 6}, Day7::calculateAmplifiedSignalFeedback, parallel);
     }
 
-    private static long calculateCommonPath(long[] input, List<Integer> templatePhaseSettings,
-                                            Function2<List<Integer>, long[], Long> calculationStrategy) {
-        List<List<Integer>> phaseSettings = templatePhaseSettings.permutations();
-        long maxAmplified = 0;
-        for (List<Integer> phaseSetting : phaseSettings) {
-            long[] instructions = Arrays.copyOf(input, input.length);
-            long amplifiedSignal = calculationStrategy.apply(phaseSetting, instructions);
-            if (amplifiedSignal > maxAmplified) {
-                maxAmplified = amplifiedSignal;
+    //Run up to first signal input depends only on phase, done once per phase and restored for every permutation.
+    //Permutations are split into chunks with own amplifiers, restoring copies into their written pages without allocating
+    static long calculatePart2WarmStarted(long[] instructions, boolean parallel) {
+        int[] phases = {9, 7, 8, 5, 6};
+        Memory program = Memory.of(instructions);
+        Map<Integer, IntcodeComputer> warmAmplifiers = new HashMap<>();
+        for (int phase : phases) {
+            warmAmplifiers.put(phase, warmUp(program, phase));
+        }
+        long permutations = PhasePermutations.count(phases.length);
+        int chunks = parallel ? ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_WORKER : 1;
+        IntStream chunkIndexes = IntStream.range(0, chunks);
+        return (parallel ? chunkIndexes.parallel() : chunkIndexes).mapToLong(chunk -> {
+            IntcodeComputer[] amplifiers = new IntcodeComputer[phases.length];
+            for (int i = 0; i < amplifiers.length; i++) {
+                amplifiers[i] = new IntcodeComputer(program.fork());
+            }
+            long max = 0;
+            for (long index = permutations * chunk / chunks; index < permutations * (chunk + 1) / chunks; index++) {
+                int[] phaseSetting = PhasePermutations.permutation(phases, index);
+                for (int i = 0; i < amplifiers.length; i++) {
+                    amplifiers[i].restore(warmAmplifiers.get(phaseSetting[i]));
+                }
+                max = Math.max(max, runFeedbackLoop(amplifiers));
             }
+            return max;
+        }).reduce(0, Math::max);
+    }
+
+    private static IntcodeComputer warmUp(Memory program, int phase) {
+        IntcodeComputer amplifier = new IntcodeComputer(program.fork());
+        amplifier.provideInput(phase);
+        if (amplifier.run() != State.NEEDS_INPUT) {
+            throw new IllegalStateException("Amplifier should wait for signal after phase " + phase);
         }
-        return maxAmplified;
+        return amplifier;
     }
 
-    private static long calculateAmplifiedSignalFeedback(List<Integer> phaseSetting, long[] input) {
-        List<Tuple2<long[], Integer>> memoryStatesAndPointers = List.empty();
-        //FIRST RUN WITH INITIAL PHASE SETTINGS
-        long currentSignal = 0;
-        for (Integer phase : phaseSetting) {
-            long[] currentState = Arrays.copyOf(input, input.length);
-            Tuple2<Integer, Long> pointerSignal = runOpCode(0, currentState, phase, currentSignal);
-            currentSignal = pointerSignal._2;
-            memoryStatesAndPointers = memoryStatesAndPointers.append(Tuple.of(currentState, pointerSignal._1));
+    private static long calculatePart2Pipelined(long[] instructions) {
+        return calculateCommonPath(instructions, new int[]{9, 7, 8, 5, 6}, Day7::calculateAmplifiedSignalFeedbackPipelined, false);
+    }
+
+    //Falls back to interpreted amplifiers when running without system java compiler
+    private static long calculatePart2Compiled(long[] instructions) {
+        int[] phases = {9, 7, 8, 5, 6};
+        return IntcodeCompiler.compile(Memory.of(instructions))
+                              .map(compiled -> calculateCommonPath(instructions, phases, (phaseSetting, program) ->
+                                      runFeedbackLoop(startAmplifiers(phaseSetting, compiled::newComputer)), false))
+                              .orElseGet(() -> calculatePart2(instructions, false));
+    }
+
+    //Parallel mode splits permutation indexes across common fork join pool, max is same regardless of split
+    private static long calculateCommonPath(long[] input, int[] templatePhaseSettings,
+                                            ToLongBiFunction<int[], Memory> calculationStrategy, boolean parallel) {
+        Memory program = Memory.of(input);
+        LongStream permutationIndexes = LongStream.range(0, PhasePermutations.count(templatePhaseSettings.length));
+        if (parallel) {
+            permutationIndexes = permutationIndexes.parallel();
+        }
+        return permutationIndexes.map(index -> calculationStrategy.applyAsLong(PhasePermutations.permutation(templatePhaseSettings, index), program))
+                                 .reduce(0, Math::max);
+    }
+
+    //Permutations walked as trie, first pass of an amplifier depends only on phases before it so each prefix runs once.
+    //Without feedback only signal crosses stages, with feedback amplifiers are restored from first passes for each completion
+    static long calculatePrefixShared(long[] input, int[] phases, boolean feedback) {
+        Memory program = Memory.of(input);
+        IntcodeComputer[] amplifiers = new IntcodeComputer[phases.length];
+        for (int i = 0; i < amplifiers.length; i++) {
+            amplifiers[i] = new IntcodeComputer(program.fork());
         }
+        return searchPrefixes(program, phases, new boolean[phases.length], new IntcodeComputer[phases.length], amplifiers, 0, 0, feedback);
+    }
 
-        try {
-            while (true) {
-                List<Tuple2<long[], Integer>> memoryStatesAndPointersCopy = List.ofAll(memoryStatesAndPointers);
-                memoryStatesAndPointers = List.empty();
-                for (Tuple2<long[], Integer> memoryStateAndPointer : memoryStatesAndPointersCopy) {
-                    Tuple2<Integer, Long> pointerSignal = runOpCode(memoryStateAndPointer._2, memoryStateAndPointer._1, currentSignal, 0 /*Does not matter*/);
-                    memoryStatesAndPointers = memoryStatesAndPointers.append(Tuple.of(memoryStateAndPointer._1, pointerSignal._1));
-                    currentSignal = pointerSignal._2;
+    private static long searchPrefixes(Memory program, int[] phases, boolean[] used, IntcodeComputer[] firstPasses,
+                                       IntcodeComputer[] amplifiers, int depth, long signal, boolean feedback) {
+        if (depth == phases.length) {
+            if (!feedback) {
+                return signal;
+            }
+            for (int i = 0; i < amplifiers.length; i++) {
+                amplifiers[i].restore(firstPasses[i]);
+            }
+            return runFeedbackLoop(amplifiers, signal);
+        }
+        long maxSignal = 0;
+        for (int i = 0; i < phases.length; i++) {
+            if (used[i]) {
+                continue;
+            }
+            IntcodeComputer amplifier = new IntcodeComputer(program.fork());
+            amplifier.provideInput(phases[i]);
+            amplifier.provideInput(signal);
+            State state = amplifier.run();
+            if (feedback && state == State.HALTED) {
+                //Loop ends here whatever phases follow
+                maxSignal = Math.max(maxSignal, signal);
+                continue;
+            }
+            if (state != State.OUTPUT) {
+                throw new IllegalStateException("Amplifier should produce signal");
+            }
+            used[i] = true;
+            firstPasses[depth] = amplifier;
+            maxSignal = Math.max(maxSignal, searchPrefixes(program, phases, used, firstPasses, amplifiers, depth + 1, amplifier.getOutput(), feedback));
+            used[i] = false;
+        }
+        return maxSignal;
+    }
+
+    private static long calculateAmplifiedSignalFeedback(int[] phaseSetting, Memory program) {
+        return runFeedbackLoop(startAmplifiers(phaseSetting, program));
+    }
+
+    private static long runFeedbackLoop(IntcodeComputer[] amplifiers) {
+        return runFeedbackLoop(amplifiers, 0);
+    }
+
+    //Ends when an amplifier halts, returns signal given to it. IntcodePipeline ends same way
+    private static long runFeedbackLoop(IntcodeComputer[] amplifiers, long initialSignal) {
+        long currentSignal = initialSignal;
+        while (true) {
+            for (IntcodeComputer amplifier : amplifiers) {
+                amplifier.provideInput(currentSignal);
+                if (amplifier.run() == State.HALTED) {
+                    return currentSignal;
                 }
+                currentSignal = amplifier.getOutput();
             }
-        } catch (RuntimeException e) { //FIXME EXCEPTION FLOW CONTROL...
-            return currentSignal;
         }
     }
 
-    private static long calculateAmplifiedSignalNoFeedback(List<Integer> phaseSetting, long[] input) {
-        long currentSignal = 0;
-        for (Integer phase : phaseSetting) {
-            currentSignal = runOpCode(0, input, phase, currentSignal)._2;
+    private static long calculateAmplifiedSignalFeedbackPipelined(int[] phaseSetting, Memory program) {
+        return IntcodePipeline.runFeedbackLoop(startAmplifiers(phaseSetting, program), 0);
+    }
+
+    private static long calculateAmplifiedSignalNoFeedback(int[] phaseSetting, Memory program) {
+        return calculateAmplifiedSignalNoFeedback(phaseSetting, program, 0);
+    }
+
+    private static long calculateAmplifiedSignalNoFeedback(int[] phaseSetting, Memory program, long initialSignal) {
+        long currentSignal = initialSignal;
+        for (IntcodeComputer amplifier : startAmplifiers(phaseSetting, program)) {
+            amplifier.provideInput(currentSignal);
+            if (amplifier.run() != State.OUTPUT) {
+                throw new IllegalStateException("Amplifier should produce signal");
+            }
+            currentSignal = amplifier.getOutput();
         }
         return currentSignal;
     }
 
-    @SuppressWarnings("DuplicatedCode")
-    private static Tuple2<Integer, Long> runOpCode(int initPointer, long[] instructions,
-                                                   long firstInput, long secondInput) {
-        boolean firstInputUsed = false;
-        int movePointer = 0;
-        for (int i = initPointer; ; i += movePointer) {
-            String params = String.valueOf(instructions[i]);
-            int opcode = Character.getNumericValue(params.charAt(params.length() - 1));
-            if (params.equals("99")) {
-                throw new RuntimeException("Program finished.");
-            }
-            if (opcode == 1 || opcode == 2) { //BASIC DAY2
-                int num1Pos = (int) instructions[i + 1];
-                int num2Pos = (int) instructions[i + 2];
-                int outputPos = (int) instructions[i + 3];
-                movePointer = 4;
-                if (opcode == 1) {
-                    instructions[outputPos] = (positionMode(params, 1) ? instructions[num1Pos] : instructions[i + 1]) +
-                            (positionMode(params, 2) ? instructions[num2Pos] : instructions[i + 2]);
-                } else {
-                    instructions[outputPos] = (positionMode(params, 1) ? instructions[num1Pos] : instructions[i + 1]) *
-                            (positionMode(params, 2) ? instructions[num2Pos] : instructions[i + 2]);
-                }
-            } else if (opcode == 3 || opcode == 4) { //ADDITIONAL FEATURES FROM PART 1
-                movePointer = 2;
-                int index = (int) instructions[i + 1];
-                boolean isPosition = positionMode(params, 1);
-                if (opcode == 3) {
-                    if (!firstInputUsed) {
-                        instructions[index] = firstInput;
-                        firstInputUsed = true;
-                    } else {
-                        instructions[index] = secondInput;
-                    }
-                } else {
-                    return Tuple.of(i + movePointer, isPosition ? instructions[index] : instructions[i + 1]);
-                }
-            } else { //ADDITIONAL FEATURES FROM PART 2
-                int firstParam = positionMode(params, 1) ? (int) instructions[(int) instructions[i + 1]] : (int) instructions[i + 1];
-                int secondParam = positionMode(params, 2) ? (int) instructions[(int) instructions[i + 2]] : (int) instructions[i + 2];
-                if (opcode == 5 || opcode == 6) {
-                    if ((opcode == 5 && firstParam != 0) || (opcode == 6 && firstParam == 0)) {
-                        i = secondParam;
-                        movePointer = 0;
-                    } else {
-                        movePointer = 3;
-                    }
-                } else if (opcode == 7 || opcode == 8) {
-                    movePointer = 4;
-                    int thirdParam = (int) instructions[i + 3];
-                    if (opcode == 7) {
-                        if (firstParam < secondParam) instructions[thirdParam] = 1;
-                        else instructions[thirdParam] = 0;
-                    } else {
-                        if (firstParam == secondParam) instructions[thirdParam] = 1;
-                        else instructions[thirdParam] = 0;
-                    }
-                }
-            }
+    //Stages run on program bound to cache
+    private static long calculateAmplifiedSignalNoFeedback(int[] phaseSetting, StageCache stageCache) {
+        long currentSignal = 0;
+        for (int phase : phaseSetting) {
+            currentSignal = stageCache.computeIfAbsent(phase, currentSignal, (program, stagePhase, signal) ->
+                    calculateAmplifiedSignalNoFeedback(new int[]{stagePhase}, program, signal));
         }
+        return currentSignal;
+    }
+
+    //Each amplifier gets own copy on write view of program with phase setting already queued as first input
+    private static IntcodeComputer[] startAmplifiers(int[] phaseSetting, Memory program) {
+        return startAmplifiers(phaseSetting, () -> new IntcodeComputer(program.fork()));
     }
 
-    private static boolean positionMode(String params, int position) {
-        String[] p = params.split("");
-        int modeIdx = p.length - 2 - position;
-        if (modeIdx >= 0) {
-            return p[modeIdx].equals("0");
+    private static IntcodeComputer[] startAmplifiers(int[] phaseSetting, Supplier<IntcodeComputer> amplifierFactory) {
+        IntcodeComputer[] amplifiers = new IntcodeComputer[phaseSetting.length];
+        for (int i = 0; i < amplifiers.length; i++) {
+            amplifiers[i] = amplifierFactory.get();
+            amplifiers[i].provideInput(phaseSetting[i]);
         }
-        return true;
+        return amplifiers;
     }
 }
@@ -0,0 +1,36 @@
+package edu.advent.day7;
+
+//Permutations addressed by index (factorial number system), so permutation space can be split without materializing it
+public class PhasePermutations {
+
+    private static final int MAX_SIZE = 20;
+    private static final long[] FACTORIALS = new long[MAX_SIZE + 1];
+
+    static {
+        FACTORIALS[0] = 1;
+        for (int i = 1; i <= MAX_SIZE; i++) {
+            FACTORIALS[i] = FACTORIALS[i - 1] * i;
+        }
+    }
+
+    public static long count(int size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Too many phases to enumerate: " + size);
+        }
+        return FACTORIALS[size];
+    }
+
+    //Index 0 returns phases in given order, count(phases.length) - 1 returns them reversed
+    public static int[] permutation(int[] phases, long index) {
+        int[] remaining = phases.clone();
+        int[] result = new int[phases.length];
+        for (int i = 0; i < result.length; i++) {
+            long factorial = FACTORIALS[result.length - 1 - i];
+            int pick = (int) (index / factorial);
+            index %= factorial;
+            result[i] = remaining[pick];
+            System.arraycopy(remaining, pick + 1, remaining, pick, remaining.length - 1 - i - pick);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package edu.advent.day7;
+
+import edu.advent.intcode.Memory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Bounded LRU of amplifier stage results for one program, stage output depends only on (phase, input signal).
+//Program is bound once at creation and every stage runs on it, so results of other programs cannot get in
+public class StageCache {
+
+    private final Memory program;
+    private final Map<Key, Long> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StageCache(Memory program, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity should be positive: " + capacity);
+        }
+        this.program = program;
+        this.entries = new LinkedHashMap<Key, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    //Stage runs outside of lock on bound program, concurrent misses on same key may both run it and store same value
+    public long computeIfAbsent(int phase, long signal, StageFunction stage) {
+        Key key = new Key(phase, signal);
+        synchronized (this) {
+            Long cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        long result = stage.apply(program, phase, signal);
+        synchronized (this) {
+            entries.put(key, result);
+        }
+        return result;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StageCache{size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + '}';
+    }
+
+    public interface StageFunction {
+        long apply(Memory program, int phase, long signal);
+    }
+
+    private static class Key {
+        private final int phase;
+        private final long signal;
+
+        Key(int phase, long signal) {
+            this.phase = phase;
+            this.signal = signal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return phase == key.phase && signal == key.signal;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * phase + (int) (signal ^ (signal >>> 32));
+        }
+    }
+}
@@ -107,7 +107,7 @@ public class Day8 {
         }
     }
 
-    private static long calculatePart1(String input) {
+    static long calculatePart1(String input) {
         List<long[][]> layers = fillLayers(input);
         long minZeros = Long.MAX_VALUE;
         long minZerosLayerIdx = 0;
@@ -122,7 +122,7 @@ public class Day8 {
         return calculateNumsOnLayer(layers.get((int) minZerosLayerIdx), 1) * calculateNumsOnLayer(layers.get((int) minZerosLayerIdx), 2);
     }
 
-    private static long[][] calculatePart2(String input) {
+    static long[][] calculatePart2(String input) {
         List<long[][]> layers = fillLayers(input);
         long[][] outputLayer = new long[LAYER_HEIGHT][LAYER_WIDTH];
         for (int i = 0; i < LAYER_HEIGHT; i++) {
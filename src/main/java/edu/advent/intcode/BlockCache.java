@@ -0,0 +1,279 @@
+package edu.advent.intcode;
+
+import edu.advent.intcode.IntcodeComputer.State;
+
+import java.util.Arrays;
+
+import static edu.advent.intcode.IntcodeComputer.*;
+
+//Decoded basic blocks keyed by start address, compare followed by jump on its result is fused into one superinstruction
+class BlockCache {
+
+    //Fused kinds, compare opcode * 10 + jump opcode
+    private static final int LESS_THAN_JUMP_IF_TRUE = LESS_THAN * 10 + JUMP_IF_TRUE;
+    private static final int LESS_THAN_JUMP_IF_FALSE = LESS_THAN * 10 + JUMP_IF_FALSE;
+    private static final int EQUALS_JUMP_IF_TRUE = EQUALS * 10 + JUMP_IF_TRUE;
+    private static final int EQUALS_JUMP_IF_FALSE = EQUALS * 10 + JUMP_IF_FALSE;
+
+    private static final int FIRST_IMMEDIATE = 1;
+    private static final int SECOND_IMMEDIATE = 2;
+    private static final int TARGET_IMMEDIATE = 4;
+
+    private static final int MAX_BLOCK_INSTRUCTIONS = 64;
+    //Longest instruction is 4 words, fused one 7
+    private static final int MAX_BLOCK_LENGTH = MAX_BLOCK_INSTRUCTIONS * 7;
+    private static final int PARAMETERS = 4;
+
+    private final IntcodeComputer computer;
+    private final Memory memory;
+    private final Block[] blocks;
+    //How many cached blocks cover each address
+    private final int[] coverage;
+    private long seenModifications;
+    int pointer;
+
+    BlockCache(IntcodeComputer computer, Memory memory) {
+        this.computer = computer;
+        this.memory = memory;
+        this.blocks = new Block[memory.size()];
+        this.coverage = new int[memory.size()];
+        this.seenModifications = memory.modificationCount() - 1;
+    }
+
+    State run(int pc) {
+        if (memory.modificationCount() != seenModifications) {
+            //Written outside of cache, nothing cached can be trusted anymore
+            clear();
+        }
+        State state = execute(pc);
+        seenModifications = memory.modificationCount();
+        return state;
+    }
+
+    private State execute(int pc) {
+        Memory memory = this.memory;
+        blocks:
+        while (true) {
+            Block block = pc >= 0 && pc < blocks.length ? blocks[pc] : null;
+            if (block == null) {
+                block = decode(pc);
+            }
+            int[] kinds = block.kinds;
+            int[] modes = block.modes;
+            long[] parameters = block.parameters;
+            int next = block.end;
+            for (int k = 0; k < kinds.length; k++) {
+                int p = k * PARAMETERS;
+                int mode = modes[k];
+                switch (kinds[k]) {
+                    case ADD:
+                        if (write((int) parameters[p + 2], first(memory, parameters[p], mode) + second(memory, parameters[p + 1], mode))) {
+                            pc = block.next[k];
+                            continue blocks;
+                        }
+                        break;
+                    case MULTIPLY:
+                        if (write((int) parameters[p + 2], first(memory, parameters[p], mode) * second(memory, parameters[p + 1], mode))) {
+                            pc = block.next[k];
+                            continue blocks;
+                        }
+                        break;
+                    case LESS_THAN:
+                        if (write((int) parameters[p + 2], first(memory, parameters[p], mode) < second(memory, parameters[p + 1], mode) ? 1 : 0)) {
+                            pc = block.next[k];
+                            continue blocks;
+                        }
+                        break;
+                    case EQUALS:
+                        if (write((int) parameters[p + 2], first(memory, parameters[p], mode) == second(memory, parameters[p + 1], mode) ? 1 : 0)) {
+                            pc = block.next[k];
+                            continue blocks;
+                        }
+                        break;
+                    case INPUT:
+                        if (!computer.hasInput()) {
+                            pointer = block.addresses[k];
+                            return State.NEEDS_INPUT;
+                        }
+                        if (write((int) parameters[p + 2], computer.takeInput())) {
+                            pc = block.next[k];
+                            continue blocks;
+                        }
+                        break;
+                    case OUTPUT:
+                        computer.setOutput(first(memory, parameters[p], mode));
+                        pointer = block.next[k];
+                        return State.OUTPUT;
+                    case JUMP_IF_TRUE:
+                        next = first(memory, parameters[p], mode) != 0 ? (int) second(memory, parameters[p + 1], mode) : block.next[k];
+                        break;
+                    case JUMP_IF_FALSE:
+                        next = first(memory, parameters[p], mode) == 0 ? (int) second(memory, parameters[p + 1], mode) : block.next[k];
+                        break;
+                    case LESS_THAN_JUMP_IF_TRUE:
+                    case LESS_THAN_JUMP_IF_FALSE:
+                    case EQUALS_JUMP_IF_TRUE:
+                    case EQUALS_JUMP_IF_FALSE:
+                        next = compareAndJump(block, k, memory);
+                        break;
+                    case HALT:
+                        pointer = block.addresses[k];
+                        return State.HALTED;
+                    default:
+                        throw new IllegalStateException("Unknown instruction " + memory.get(block.addresses[k]) + " at " + block.addresses[k]);
+                }
+            }
+            pc = next;
+        }
+    }
+
+    //Fused compare + jump, compare result is still stored since program may read it later
+    private int compareAndJump(Block block, int k, Memory memory) {
+        int p = k * PARAMETERS;
+        int mode = block.modes[k];
+        int kind = block.kinds[k];
+        long first = first(memory, block.parameters[p], mode);
+        long second = second(memory, block.parameters[p + 1], mode);
+        boolean compare = kind / 10 == LESS_THAN ? first < second : first == second;
+        int jumpAddress = block.addresses[k] + 4;
+        if (write((int) block.parameters[p + 2], compare ? 1 : 0)) {
+            //Jump itself may have been overwritten, decode again from there
+            return jumpAddress;
+        }
+        boolean jump = kind % 10 == JUMP_IF_TRUE == compare;
+        if (!jump) {
+            return block.next[k];
+        }
+        long target = block.parameters[p + 3];
+        return (int) ((mode & TARGET_IMMEDIATE) != 0 ? target : memory.get((int) target));
+    }
+
+    //Returns true when cached code was overwritten, caller has to continue from next instruction
+    private boolean write(int address, long value) {
+        memory.set(address, value);
+        if (address >= 0 && address < coverage.length && coverage[address] > 0) {
+            invalidate(address);
+            return true;
+        }
+        return false;
+    }
+
+    private void invalidate(int address) {
+        for (int start = Math.max(0, address - MAX_BLOCK_LENGTH + 1); start <= address; start++) {
+            Block block = blocks[start];
+            if (block != null && block.end > address) {
+                remove(block);
+            }
+        }
+    }
+
+    private void clear() {
+        for (Block block : blocks) {
+            if (block != null) {
+                remove(block);
+            }
+        }
+    }
+
+    private void remove(Block block) {
+        blocks[block.start] = null;
+        for (int i = block.start; i < block.end; i++) {
+            coverage[i]--;
+        }
+    }
+
+    private Block decode(int start) {
+        int[] kinds = new int[MAX_BLOCK_INSTRUCTIONS];
+        int[] modes = new int[MAX_BLOCK_INSTRUCTIONS];
+        int[] addresses = new int[MAX_BLOCK_INSTRUCTIONS];
+        int[] next = new int[MAX_BLOCK_INSTRUCTIONS];
+        long[] parameters = new long[MAX_BLOCK_INSTRUCTIONS * PARAMETERS];
+        int count = 0;
+        int address = start;
+        while (count < MAX_BLOCK_INSTRUCTIONS) {
+            long instruction = memory.get(address);
+            int opcode = opcode(instruction);
+            int length = length(opcode);
+            addresses[count] = address;
+            if (length == 0 || address + length > memory.size()) {
+                //Left for execution to report, word stays covered so fixing it up invalidates block
+                kinds[count] = 0;
+                next[count++] = address++;
+                break;
+            }
+            kinds[count] = opcode;
+            int p = count * PARAMETERS;
+            int mode = 0;
+            if (length > 1) {
+                parameters[p] = memory.get(address + 1);
+                mode |= mode(instruction, 1) != POSITION_MODE ? FIRST_IMMEDIATE : 0;
+            }
+            if (length > 2) {
+                parameters[p + 1] = memory.get(address + 2);
+                mode |= mode(instruction, 2) != POSITION_MODE ? SECOND_IMMEDIATE : 0;
+            }
+            if (length > 3) {
+                parameters[p + 2] = memory.get(address + 3);
+            }
+            if (opcode == INPUT) {
+                parameters[p + 2] = parameters[p];
+            }
+            address += length;
+            if ((opcode == LESS_THAN || opcode == EQUALS) && address + 3 <= memory.size()) {
+                long jump = memory.get(address);
+                int jumpOpcode = opcode(jump);
+                if ((jumpOpcode == JUMP_IF_TRUE || jumpOpcode == JUMP_IF_FALSE) && mode(jump, 1) == POSITION_MODE
+                        && memory.get(address + 1) == parameters[p + 2]) {
+                    kinds[count] = opcode * 10 + jumpOpcode;
+                    parameters[p + 3] = memory.get(address + 2);
+                    mode |= mode(jump, 2) != POSITION_MODE ? TARGET_IMMEDIATE : 0;
+                    address += 3;
+                    opcode = jumpOpcode;
+                }
+            }
+            modes[count] = mode;
+            next[count++] = address;
+            if (opcode == HALT || opcode == OUTPUT || opcode == JUMP_IF_TRUE || opcode == JUMP_IF_FALSE) {
+                break;
+            }
+        }
+        Block block = new Block(start, address, count, kinds, modes, addresses, next, parameters);
+        if (start >= 0 && start < blocks.length && block.end <= coverage.length) {
+            blocks[start] = block;
+            for (int i = block.start; i < block.end; i++) {
+                coverage[i]++;
+            }
+        }
+        return block;
+    }
+
+    private static long first(Memory memory, long parameter, int mode) {
+        return (mode & FIRST_IMMEDIATE) != 0 ? parameter : memory.get((int) parameter);
+    }
+
+    private static long second(Memory memory, long parameter, int mode) {
+        return (mode & SECOND_IMMEDIATE) != 0 ? parameter : memory.get((int) parameter);
+    }
+
+    private static class Block {
+        private final int start;
+        //Exclusive end of words block was decoded from
+        private final int end;
+        private final int[] kinds;
+        private final int[] modes;
+        private final int[] addresses;
+        //Address following each instruction
+        private final int[] next;
+        private final long[] parameters;
+
+        Block(int start, int end, int count, int[] kinds, int[] modes, int[] addresses, int[] next, long[] parameters) {
+            this.start = start;
+            this.end = end;
+            this.kinds = Arrays.copyOf(kinds, count);
+            this.modes = Arrays.copyOf(modes, count);
+            this.addresses = Arrays.copyOf(addresses, count);
+            this.next = Arrays.copyOf(next, count);
+            this.parameters = Arrays.copyOf(parameters, count * PARAMETERS);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package edu.advent.intcode;
+
+import java.util.Arrays;
+
+//Base of classes generated by IntcodeCompiler, one instance per machine since it tracks validity of blocks in its memory
+public abstract class CompiledCode {
+
+    protected static final int HALTED = -1;
+    protected static final int NEEDS_INPUT = -2;
+    protected static final int OUTPUT = -3;
+    //Pointer is not at start of valid compiled block, interpreter has to take over
+    protected static final int FALLBACK = -4;
+
+    private static final byte UNVERIFIED = 0;
+    private static final byte VALID = 1;
+    private static final byte INVALID = 2;
+
+    protected Memory m;
+    private IntcodeComputer computer;
+    private CompiledProgram program;
+    private byte[] blockStates;
+    private long seenModifications;
+    int pointer;
+
+    final void init(CompiledProgram program, Memory memory, IntcodeComputer computer) {
+        this.program = program;
+        this.m = memory;
+        this.computer = computer;
+        this.blockStates = new byte[program.blockCount()];
+        this.seenModifications = memory.modificationCount() - 1;
+    }
+
+    //Returns exit code, pointer field holds address where machine stopped
+    final int execute(int pc) {
+        if (m.modificationCount() != seenModifications) {
+            //Written outside of compiled code, every block has to be checked again before use
+            Arrays.fill(blockStates, UNVERIFIED);
+        }
+        int exit = dispatch(pc);
+        seenModifications = m.modificationCount();
+        return exit;
+    }
+
+    //Jumps between blocks until one of them returns negative exit code
+    protected abstract int dispatch(int pc);
+
+    protected final boolean enter(int block) {
+        byte state = blockStates[block];
+        if (state == UNVERIFIED) {
+            state = program.matches(block, m) ? VALID : INVALID;
+            blockStates[block] = state;
+        }
+        return state == VALID;
+    }
+
+    //Returns true when write went into compiled code, block should be left right away then
+    protected final boolean write(int address, long value) {
+        m.set(address, value);
+        if (program.isCode(address)) {
+            Arrays.fill(blockStates, UNVERIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    //Negative target is left for interpreter to report
+    protected final int jump(int target) {
+        return target >= 0 ? target : exit(FALLBACK, target);
+    }
+
+    protected final boolean hasInput() {
+        return computer.hasInput();
+    }
+
+    protected final long takeInput() {
+        return computer.takeInput();
+    }
+
+    protected final void output(long value) {
+        computer.setOutput(value);
+    }
+
+    protected final int exit(int code, int pointer) {
+        this.pointer = pointer;
+        return code;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.advent.intcode;
+
+//Generated class for one program together with instruction words it was generated from
+public class CompiledProgram {
+
+    private final Memory program;
+    private final Class<? extends CompiledCode> codeClass;
+    private final int[] blockStarts;
+    private final long[][] blockWords;
+    private final boolean[] code;
+
+    CompiledProgram(Memory program, Class<? extends CompiledCode> codeClass, int[] blockStarts, long[][] blockWords) {
+        this.program = program;
+        this.codeClass = codeClass;
+        this.blockStarts = blockStarts;
+        this.blockWords = blockWords;
+        this.code = new boolean[program.size()];
+        for (int i = 0; i < blockStarts.length; i++) {
+            for (int j = 0; j < blockWords[i].length; j++) {
+                code[blockStarts[i] + j] = true;
+            }
+        }
+    }
+
+    //Machine over fresh fork of compiled program
+    public IntcodeComputer newComputer() {
+        IntcodeComputer computer = new IntcodeComputer(program.fork());
+        computer.attach(this);
+        return computer;
+    }
+
+    public int blockCount() {
+        return blockStarts.length;
+    }
+
+    CompiledCode newCode(Memory memory, IntcodeComputer computer) {
+        try {
+            CompiledCode compiledCode = codeClass.getDeclaredConstructor().newInstance();
+            compiledCode.init(this, memory, computer);
+            return compiledCode;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + codeClass.getName(), e);
+        }
+    }
+
+    //Block is usable only when memory still holds the words it was generated from
+    boolean matches(int block, Memory memory) {
+        long[] words = blockWords[block];
+        int start = blockStarts[block];
+        if (start + words.length > memory.size()) {
+            return false;
+        }
+        for (int i = 0; i < words.length; i++) {
+            if (memory.get(start + i) != words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isCode(int address) {
+        return address >= 0 && address < code.length && code[address];
+    }
+}
@@ -0,0 +1,214 @@
+package edu.advent.intcode;
+
+import edu.advent.intcode.IntcodeComputer.State;
+
+import java.util.Arrays;
+
+import static edu.advent.intcode.IntcodeComputer.*;
+
+//Many instances of same program stepped in lockstep, memory kept as one array of lanes per address.
+//Lane whose instruction word or jump target differs from first active lane continues alone on own IntcodeComputer
+public class IntcodeBatch {
+
+    private final Memory program;
+    private final long[] words;
+    //Indexed by address then lane
+    private final long[][] cells;
+    private final int lanes;
+    private final int[] active;
+    private int activeCount;
+    private final State[] states;
+    private final IntcodeComputer[] diverged;
+    private int pointer;
+    private long lockstepInstructions;
+    private long divergedLanes;
+    private long finishedInstances;
+    private long runningNanos;
+
+    public IntcodeBatch(Memory program, int lanes) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("Lanes should be positive: " + lanes);
+        }
+        this.words = program.toArray();
+        //Own pristine copy, given memory may already be written
+        this.program = Memory.of(words);
+        this.lanes = lanes;
+        this.cells = new long[words.length][lanes];
+        this.active = new int[lanes];
+        this.states = new State[lanes];
+        this.diverged = new IntcodeComputer[lanes];
+        reset();
+    }
+
+    //Every lane back to pristine program at pointer 0, statistics are kept
+    public void reset() {
+        for (int address = 0; address < words.length; address++) {
+            Arrays.fill(cells[address], words[address]);
+        }
+        for (int lane = 0; lane < lanes; lane++) {
+            active[lane] = lane;
+        }
+        activeCount = lanes;
+        Arrays.fill(states, null);
+        Arrays.fill(diverged, null);
+        pointer = 0;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public void set(int lane, int address, long value) {
+        if (diverged[lane] != null) {
+            diverged[lane].getMemory().set(address, value);
+        } else {
+            cells[address][lane] = value;
+        }
+    }
+
+    public long get(int lane, int address) {
+        return diverged[lane] != null ? diverged[lane].getMemory().get(address) : cells[address][lane];
+    }
+
+    //Null while lane has not stopped yet
+    public State getState(int lane) {
+        return states[lane];
+    }
+
+    //Own machine of lane that left lockstep, null for lanes that stayed in it
+    public IntcodeComputer getComputer(int lane) {
+        return diverged[lane];
+    }
+
+    //Runs until every lane halted or stopped on I/O, lanes stopped on I/O can be continued through their own computer
+    public void run() {
+        long start = System.nanoTime();
+        int finishing = activeCount;
+        long[][] cells = this.cells;
+        int pc = pointer;
+        while (activeCount > 0) {
+            long instruction = cells[pc][active[0]];
+            divergeDiffering(pc, instruction);
+            switch (opcode(instruction)) {
+                case ADD:
+                    for (int k = 0; k < activeCount; k++) {
+                        int lane = active[k];
+                        cells[(int) cells[pc + 3][lane]][lane] = parameter(instruction, pc, 1, lane) + parameter(instruction, pc, 2, lane);
+                    }
+                    pc += 4;
+                    break;
+                case MULTIPLY:
+                    for (int k = 0; k < activeCount; k++) {
+                        int lane = active[k];
+                        cells[(int) cells[pc + 3][lane]][lane] = parameter(instruction, pc, 1, lane) * parameter(instruction, pc, 2, lane);
+                    }
+                    pc += 4;
+                    break;
+                case LESS_THAN:
+                    for (int k = 0; k < activeCount; k++) {
+                        int lane = active[k];
+                        cells[(int) cells[pc + 3][lane]][lane] = parameter(instruction, pc, 1, lane) < parameter(instruction, pc, 2, lane) ? 1 : 0;
+                    }
+                    pc += 4;
+                    break;
+                case EQUALS:
+                    for (int k = 0; k < activeCount; k++) {
+                        int lane = active[k];
+                        cells[(int) cells[pc + 3][lane]][lane] = parameter(instruction, pc, 1, lane) == parameter(instruction, pc, 2, lane) ? 1 : 0;
+                    }
+                    pc += 4;
+                    break;
+                case JUMP_IF_TRUE:
+                case JUMP_IF_FALSE:
+                    pc = jump(instruction, pc);
+                    break;
+                case HALT:
+                    for (int k = 0; k < activeCount; k++) {
+                        states[active[k]] = State.HALTED;
+                    }
+                    activeCount = 0;
+                    break;
+                default:
+                    //I/O and unknown instructions are left for single machines to handle or report
+                    int stopped = activeCount;
+                    activeCount = 0;
+                    for (int k = 0; k < stopped; k++) {
+                        diverge(active[k], pc);
+                    }
+            }
+            lockstepInstructions++;
+        }
+        pointer = pc;
+        finishedInstances += finishing;
+        runningNanos += System.nanoTime() - start;
+    }
+
+    public long getLockstepInstructions() {
+        return lockstepInstructions;
+    }
+
+    public long getDivergedLanes() {
+        return divergedLanes;
+    }
+
+    //Throughput of all runs so far
+    public double getInstancesPerSecond() {
+        return runningNanos == 0 ? 0 : finishedInstances * 1e9 / runningNanos;
+    }
+
+    private int jump(long instruction, int pc) {
+        boolean ifTrue = opcode(instruction) == JUMP_IF_TRUE;
+        int leaderTarget = target(instruction, pc, active[0], ifTrue);
+        int kept = 1;
+        for (int k = 1; k < activeCount; k++) {
+            int lane = active[k];
+            int target = target(instruction, pc, lane, ifTrue);
+            if (target == leaderTarget) {
+                active[kept++] = lane;
+            } else {
+                diverge(lane, target);
+            }
+        }
+        activeCount = kept;
+        return leaderTarget;
+    }
+
+    private int target(long instruction, int pc, int lane, boolean ifTrue) {
+        boolean taken = (parameter(instruction, pc, 1, lane) != 0) == ifTrue;
+        return taken ? (int) parameter(instruction, pc, 2, lane) : pc + 3;
+    }
+
+    //Lanes that overwrote current instruction word cannot share decode with first lane anymore
+    private void divergeDiffering(int pc, long instruction) {
+        long[] words = cells[pc];
+        int kept = 1;
+        for (int k = 1; k < activeCount; k++) {
+            int lane = active[k];
+            if (words[lane] == instruction) {
+                active[kept++] = lane;
+            } else {
+                diverge(lane, pc);
+            }
+        }
+        activeCount = kept;
+    }
+
+    private void diverge(int lane, int pc) {
+        Memory memory = program.fork();
+        for (int address = 0; address < words.length; address++) {
+            if (cells[address][lane] != words[address]) {
+                memory.set(address, cells[address][lane]);
+            }
+        }
+        IntcodeComputer computer = new IntcodeComputer(memory);
+        computer.setPointer(pc);
+        diverged[lane] = computer;
+        states[lane] = computer.run();
+        divergedLanes++;
+    }
+
+    private long parameter(long instruction, int pc, int parameter, int lane) {
+        long value = cells[pc + parameter][lane];
+        return mode(instruction, parameter) == POSITION_MODE ? cells[(int) value][lane] : value;
+    }
+}
@@ -0,0 +1,290 @@
+package edu.advent.intcode;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.advent.intcode.IntcodeComputer.*;
+
+//Translates basic blocks of a program into Java source, compiles it in memory and loads it through own class loader
+public class IntcodeCompiler {
+
+    private static final String PACKAGE = "edu.advent.intcode.generated";
+    //Keeps dispatch method far below 64KB method size limit
+    private static final int MAX_BLOCKS = 2000;
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    //Empty when running without system java compiler (plain JRE) or program is too big, interpreter should be used then
+    public static Optional<CompiledProgram> compile(Memory program) {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            return Optional.empty();
+        }
+        long[] words = program.toArray();
+        List<Block> blocks = findBlocks(words);
+        if (blocks.isEmpty() || blocks.size() > MAX_BLOCKS) {
+            return Optional.empty();
+        }
+        String className = "IntcodeBlocks" + CLASS_COUNTER.incrementAndGet();
+        int[] blockStarts = new int[blocks.size()];
+        long[][] blockWords = new long[blocks.size()][];
+        for (int i = 0; i < blocks.size(); i++) {
+            blockStarts[i] = blocks.get(i).start;
+            blockWords[i] = Arrays.copyOfRange(words, blocks.get(i).start, blocks.get(i).end);
+        }
+        return compileSource(javac, className, generateSource(className, blocks, words))
+                .map(codeClass -> new CompiledProgram(program, codeClass, blockStarts, blockWords));
+    }
+
+    //Linear sweep instead of reachability, code after self modified instruction is still compiled this way.
+    //Leaders: entry, jump targets known at compile time, address after jump, output, halt or undecodable word, every input
+    private static List<Block> findBlocks(long[] words) {
+        TreeSet<Integer> leaders = new TreeSet<>();
+        leaders.add(0);
+        int address = 0;
+        while (address < words.length) {
+            int opcode = opcode(words[address]);
+            int length = length(opcode);
+            if (length == 0 || address + length > words.length) {
+                addLeader(leaders, words, ++address);
+                continue;
+            }
+            if (opcode == INPUT) {
+                leaders.add(address);
+            }
+            if (opcode == JUMP_IF_TRUE || opcode == JUMP_IF_FALSE) {
+                long target = words[address + 2];
+                if (mode(words[address], 2) == POSITION_MODE) {
+                    //Speculative, cell may hold different target at runtime and dispatch will fall back then
+                    target = target >= 0 && target < words.length ? words[(int) target] : -1;
+                }
+                addLeader(leaders, words, target);
+            }
+            address += length;
+            if (endsBlock(opcode)) {
+                addLeader(leaders, words, address);
+            }
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        for (int leader : leaders) {
+            Block block = new Block(leader);
+            address = leader;
+            while (true) {
+                if (address != leader && leaders.contains(address)) {
+                    block.fallThrough = true;
+                    break;
+                }
+                int opcode = address < words.length ? opcode(words[address]) : 0;
+                int length = length(opcode);
+                if (length == 0 || address + length > words.length) {
+                    break;
+                }
+                block.instructions.add(address);
+                address += length;
+                if (endsBlock(opcode)) {
+                    break;
+                }
+            }
+            block.end = address;
+            //Nothing to compile at data words, dispatch falls back to interpreter there
+            if (!block.instructions.isEmpty()) {
+                blocks.add(block);
+            }
+        }
+        return blocks;
+    }
+
+    private static void addLeader(TreeSet<Integer> leaders, long[] words, long address) {
+        if (address >= 0 && address < words.length) {
+            leaders.add((int) address);
+        }
+    }
+
+    private static String generateSource(String className, List<Block> blocks, long[] words) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE).append(";\n\n")
+              .append("public final class ").append(className).append(" extends ").append(CompiledCode.class.getName()).append(" {\n\n")
+              .append("    protected int dispatch(int pc) {\n")
+              .append("        while (pc >= 0) {\n")
+              .append("            switch (pc) {\n");
+        for (int i = 0; i < blocks.size(); i++) {
+            source.append("                case ").append(blocks.get(i).start).append(": pc = b").append(i).append("(); break;\n");
+        }
+        source.append("                default: return exit(FALLBACK, pc);\n")
+              .append("            }\n")
+              .append("        }\n")
+              .append("        return pc;\n")
+              .append("    }\n");
+        for (int i = 0; i < blocks.size(); i++) {
+            generateBlock(source, i, blocks.get(i), words);
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static void generateBlock(StringBuilder source, int index, Block block, long[] words) {
+        source.append("\n    private int b").append(index).append("() {\n")
+              .append("        if (!enter(").append(index).append(")) return exit(FALLBACK, ").append(block.start).append(");\n");
+        for (int address : block.instructions) {
+            long instruction = words[address];
+            int opcode = opcode(instruction);
+            int next = address + length(opcode);
+            source.append("        ");
+            switch (opcode) {
+                case ADD:
+                    write(source, words, address, 3, parameter(words, address, 1) + " + " + parameter(words, address, 2), next);
+                    break;
+                case MULTIPLY:
+                    write(source, words, address, 3, parameter(words, address, 1) + " * " + parameter(words, address, 2), next);
+                    break;
+                case LESS_THAN:
+                    write(source, words, address, 3, "(" + parameter(words, address, 1) + " < " + parameter(words, address, 2) + ") ? 1L : 0L", next);
+                    break;
+                case EQUALS:
+                    write(source, words, address, 3, "(" + parameter(words, address, 1) + " == " + parameter(words, address, 2) + ") ? 1L : 0L", next);
+                    break;
+                case INPUT:
+                    source.append("if (!hasInput()) return exit(NEEDS_INPUT, ").append(address).append(");\n        ");
+                    write(source, words, address, 1, "takeInput()", next);
+                    break;
+                case OUTPUT:
+                    source.append("output(").append(parameter(words, address, 1)).append(");\n")
+                          .append("        return exit(OUTPUT, ").append(next).append(");\n");
+                    break;
+                case JUMP_IF_TRUE:
+                    source.append("return jump(").append(parameter(words, address, 1)).append(" != 0 ? (int) ")
+                          .append(parameter(words, address, 2)).append(" : ").append(next).append(");\n");
+                    break;
+                case JUMP_IF_FALSE:
+                    source.append("return jump(").append(parameter(words, address, 1)).append(" == 0 ? (int) ")
+                          .append(parameter(words, address, 2)).append(" : ").append(next).append(");\n");
+                    break;
+                case HALT:
+                    source.append("return exit(HALTED, ").append(address).append(");\n");
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected opcode in block " + instruction);
+            }
+        }
+        if (block.fallThrough) {
+            source.append("        return ").append(block.end).append(";\n");
+        } else if (!endsBlock(opcode(words[lastOf(block)]))) {
+            //Could not decode next instruction, interpreter reports it
+            source.append("        return exit(FALLBACK, ").append(block.end).append(");\n");
+        }
+        source.append("    }\n");
+    }
+
+    private static int lastOf(Block block) {
+        return block.instructions.get(block.instructions.size() - 1);
+    }
+
+    private static boolean endsBlock(int opcode) {
+        return opcode == HALT || opcode == OUTPUT || opcode == JUMP_IF_TRUE || opcode == JUMP_IF_FALSE;
+    }
+
+    //Leaving block right after write into compiled code, dispatch verifies blocks again
+    private static void write(StringBuilder source, long[] words, int address, int parameter, String value, int next) {
+        source.append("if (write(").append((int) words[address + parameter]).append(", ").append(value).append(")) return ")
+              .append(next).append(";\n");
+    }
+
+    private static String parameter(long[] words, int address, int parameter) {
+        long value = words[address + parameter];
+        if (mode(words[address], parameter) == POSITION_MODE) {
+            return "m.get(" + (int) value + ")";
+        }
+        return value + "L";
+    }
+
+    private static Optional<Class<? extends CompiledCode>> compileSource(JavaCompiler javac, String className, String source) {
+        String fullName = PACKAGE + "." + className;
+        Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+        StandardJavaFileManager standardFileManager = javac.getStandardFileManager(null, null, null);
+        JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("memory:///" + name.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        classes.put(name, bytes);
+                        return bytes;
+                    }
+                };
+            }
+        };
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + fullName.replace('.', '/') + ".java"),
+                                                             JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = Arrays.asList("-classpath", classPath(), "-g:none", "-nowarn");
+        boolean compiled = javac.getTask(null, fileManager, diagnostics, options, null, Collections.singletonList(sourceFile)).call();
+        if (!compiled || !classes.containsKey(fullName)) {
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    throw new IllegalStateException("Generated Intcode class does not compile: " + diagnostic.getMessage(null));
+                }
+            }
+            return Optional.empty();
+        }
+        byte[] bytes = classes.get(fullName).toByteArray();
+        return Optional.of(new GeneratedClassLoader().define(fullName, bytes).asSubclass(CompiledCode.class));
+    }
+
+    private static String classPath() {
+        try {
+            String ownLocation = Paths.get(CompiledCode.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+            return ownLocation + File.pathSeparator + System.getProperty("java.class.path");
+        } catch (Exception e) {
+            return System.getProperty("java.class.path");
+        }
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader() {
+            super(CompiledCode.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private static class Block {
+        private final int start;
+        private final List<Integer> instructions = new ArrayList<>();
+        private int end;
+        private boolean fallThrough;
+
+        Block(int start) {
+            this.start = start;
+        }
+    }
+}
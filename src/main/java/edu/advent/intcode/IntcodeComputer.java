@@ -0,0 +1,249 @@
+package edu.advent.intcode;
+
+public class IntcodeComputer {
+
+    public enum State {
+        NEEDS_INPUT, OUTPUT, HALTED
+    }
+
+    static final int ADD = 1;
+    static final int MULTIPLY = 2;
+    static final int INPUT = 3;
+    static final int OUTPUT = 4;
+    static final int JUMP_IF_TRUE = 5;
+    static final int JUMP_IF_FALSE = 6;
+    static final int LESS_THAN = 7;
+    static final int EQUALS = 8;
+    static final int HALT = 99;
+
+    static final int POSITION_MODE = 0;
+    //INDEXED BY PARAMETER NUMBER, 1 -> HUNDREDS DIGIT, 2 -> THOUSANDS...
+    private static final long[] MODE_DIVISORS = {1, 100, 1000, 10000};
+
+    private final Memory memory;
+    private int pointer;
+    private long output;
+    private long[] inputs = new long[4];
+    private int inputsHead;
+    private int inputsSize;
+    private CompiledCode compiled;
+    private BlockCache blockCache;
+    private IntcodeProfiler profiler;
+
+    public IntcodeComputer(long[] program) {
+        this(Memory.of(program));
+    }
+
+    public IntcodeComputer(Memory memory) {
+        this.memory = memory;
+    }
+
+    //Back to pristine program with empty input queue
+    public void reset() {
+        memory.reset();
+        pointer = 0;
+        output = 0;
+        inputsHead = 0;
+        inputsSize = 0;
+    }
+
+    //Takes over memory, pointer, output and pending inputs of other machine running same program, execution engine is kept
+    public void restore(IntcodeComputer other) {
+        memory.copyFrom(other.memory);
+        copyState(other);
+    }
+
+    private void copyState(IntcodeComputer other) {
+        pointer = other.pointer;
+        output = other.output;
+        if (inputs.length < other.inputs.length) {
+            inputs = new long[other.inputs.length];
+        }
+        for (int i = 0; i < other.inputsSize; i++) {
+            inputs[i] = other.inputs[(other.inputsHead + i) & (other.inputs.length - 1)];
+        }
+        inputsHead = 0;
+        inputsSize = other.inputsSize;
+    }
+
+    public void provideInput(long value) {
+        if (inputsSize == inputs.length) {
+            long[] grown = new long[inputs.length * 2];
+            for (int i = 0; i < inputsSize; i++) {
+                grown[i] = inputs[(inputsHead + i) & (inputs.length - 1)];
+            }
+            inputs = grown;
+            inputsHead = 0;
+        }
+        inputs[(inputsHead + inputsSize) & (inputs.length - 1)] = value;
+        inputsSize++;
+    }
+
+    //Executes compiled blocks where possible, blocks overwritten by program itself fall back to interpreter
+    public void attach(CompiledProgram program) {
+        compiled = program.newCode(memory, this);
+        blockCache = null;
+    }
+
+    //Lighter alternative to compiled code, decoded blocks are cached per machine and dropped when overwritten
+    public void enableBlockCache() {
+        blockCache = new BlockCache(this, memory);
+        compiled = null;
+    }
+
+    //While set, machine runs counting interpreter instead of compiled code or block cache, null turns profiling off
+    public void setProfiler(IntcodeProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    //Runs until program halts, produces output or waits for input that was not provided yet
+    public State run() {
+        if (profiler != null) {
+            return profiler.run(this, memory, pointer);
+        }
+        if (blockCache != null) {
+            State state = blockCache.run(pointer);
+            pointer = blockCache.pointer;
+            return state;
+        }
+        if (compiled == null) {
+            return interpret(false);
+        }
+        while (true) {
+            int exit = compiled.execute(pointer);
+            pointer = compiled.pointer;
+            switch (exit) {
+                case CompiledCode.HALTED:
+                    return State.HALTED;
+                case CompiledCode.NEEDS_INPUT:
+                    return State.NEEDS_INPUT;
+                case CompiledCode.OUTPUT:
+                    return State.OUTPUT;
+                default:
+                    State state = interpret(true);
+                    if (state != null) {
+                        return state;
+                    }
+            }
+        }
+    }
+
+    //With singleStep returns null after one instruction, so caller can go back to compiled code as soon as possible
+    private State interpret(boolean singleStep) {
+        Memory memory = this.memory;
+        int i = pointer;
+        while (true) {
+            long instruction = memory.get(i);
+            switch (opcode(instruction)) {
+                case ADD:
+                    memory.set((int) memory.get(i + 3), parameter(memory, instruction, i, 1) + parameter(memory, instruction, i, 2));
+                    i += 4;
+                    break;
+                case MULTIPLY:
+                    memory.set((int) memory.get(i + 3), parameter(memory, instruction, i, 1) * parameter(memory, instruction, i, 2));
+                    i += 4;
+                    break;
+                case INPUT:
+                    if (inputsSize == 0) {
+                        pointer = i;
+                        return State.NEEDS_INPUT;
+                    }
+                    memory.set((int) memory.get(i + 1), takeInput());
+                    i += 2;
+                    break;
+                case OUTPUT:
+                    output = parameter(memory, instruction, i, 1);
+                    pointer = i + 2;
+                    return State.OUTPUT;
+                case JUMP_IF_TRUE:
+                    i = parameter(memory, instruction, i, 1) != 0 ? (int) parameter(memory, instruction, i, 2) : i + 3;
+                    break;
+                case JUMP_IF_FALSE:
+                    i = parameter(memory, instruction, i, 1) == 0 ? (int) parameter(memory, instruction, i, 2) : i + 3;
+                    break;
+                case LESS_THAN:
+                    memory.set((int) memory.get(i + 3), parameter(memory, instruction, i, 1) < parameter(memory, instruction, i, 2) ? 1 : 0);
+                    i += 4;
+                    break;
+                case EQUALS:
+                    memory.set((int) memory.get(i + 3), parameter(memory, instruction, i, 1) == parameter(memory, instruction, i, 2) ? 1 : 0);
+                    i += 4;
+                    break;
+                case HALT:
+                    pointer = i;
+                    return State.HALTED;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + instruction + " at " + i);
+            }
+            if (singleStep) {
+                pointer = i;
+                return null;
+            }
+        }
+    }
+
+    public long getOutput() {
+        return output;
+    }
+
+    public int getPointer() {
+        return pointer;
+    }
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    void setPointer(int pointer) {
+        this.pointer = pointer;
+    }
+
+    boolean hasInput() {
+        return inputsSize > 0;
+    }
+
+    void setOutput(long output) {
+        this.output = output;
+    }
+
+    long takeInput() {
+        long value = inputs[inputsHead];
+        inputsHead = (inputsHead + 1) & (inputs.length - 1);
+        inputsSize--;
+        return value;
+    }
+
+    static int opcode(long instruction) {
+        return (int) (instruction % 100);
+    }
+
+    //Words taken by instruction, 0 for unknown opcode
+    static int length(int opcode) {
+        switch (opcode) {
+            case ADD:
+            case MULTIPLY:
+            case LESS_THAN:
+            case EQUALS:
+                return 4;
+            case JUMP_IF_TRUE:
+            case JUMP_IF_FALSE:
+                return 3;
+            case INPUT:
+            case OUTPUT:
+                return 2;
+            case HALT:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    static int mode(long instruction, int parameter) {
+        return (int) (instruction / MODE_DIVISORS[parameter] % 10);
+    }
+
+    private static long parameter(Memory memory, long instruction, int pointer, int parameter) {
+        long value = memory.get(pointer + parameter);
+        return mode(instruction, parameter) == POSITION_MODE ? memory.get((int) value) : value;
+    }
+}
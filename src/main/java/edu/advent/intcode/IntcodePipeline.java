@@ -0,0 +1,103 @@
+package edu.advent.intcode;
+
+import edu.advent.intcode.IntcodeComputer.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Runs every machine on its own thread, output of machine i is connected to input of machine i + 1
+public class IntcodePipeline {
+
+    private static final int DEFAULT_CHANNEL_CAPACITY = 64;
+    private static final ThreadFactory THREAD_FACTORY = createThreadFactory();
+
+    //Last machine feeds back into first one. Loop ends with halt of a machine, machines waiting for its signal or trying
+    //to send it one end with it instead of failing. Returns signal last sent into lowest indexed halted machine, same as
+    //round robin loop returning signal given to amplifier that halted, for Day7 amplifiers that is last signal of last one
+    public static long runFeedbackLoop(IntcodeComputer[] machines, long initialSignal) {
+        return runFeedbackLoop(machines, initialSignal, DEFAULT_CHANNEL_CAPACITY);
+    }
+
+    public static long runFeedbackLoop(IntcodeComputer[] machines, long initialSignal, int channelCapacity) {
+        SpscChannel[] channels = new SpscChannel[machines.length];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new SpscChannel(channelCapacity);
+        }
+        channels[0].put(initialSignal);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        boolean[] halted = new boolean[machines.length];
+        Thread[] threads = new Thread[machines.length];
+        for (int i = 0; i < machines.length; i++) {
+            int index = i;
+            IntcodeComputer machine = machines[i];
+            SpscChannel in = channels[i];
+            SpscChannel out = channels[(i + 1) % channels.length];
+            threads[i] = THREAD_FACTORY.newThread(() -> {
+                try {
+                    halted[index] = runMachine(machine, in, out);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    //Neighbours on both sides would otherwise wait forever, full input channel blocks producer too
+                    out.close();
+                    in.close();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for pipeline", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Pipeline machine failed", failure.get());
+        }
+        //Thread join makes halted flags and channel contents visible here
+        for (int i = 0; i < machines.length; i++) {
+            if (halted[i]) {
+                return channels[i].last();
+            }
+        }
+        throw new IllegalStateException("No machine halted");
+    }
+
+    //False when neighbour ended loop before this machine halted
+    private static boolean runMachine(IntcodeComputer machine, SpscChannel in, SpscChannel out) {
+        try {
+            State state;
+            while ((state = machine.run()) != State.HALTED) {
+                if (state == State.NEEDS_INPUT) {
+                    machine.provideInput(in.take());
+                } else {
+                    out.put(machine.getOutput());
+                }
+            }
+            return true;
+        } catch (SpscChannel.ClosedException e) {
+            return false;
+        }
+    }
+
+    //Virtual threads when running on JDK that has them, platform daemon threads otherwise
+    private static ThreadFactory createThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return runnable -> {
+                Thread thread = new Thread(runnable, "intcode-pipeline");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package edu.advent.intcode;
+
+import edu.advent.intcode.IntcodeComputer.State;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static edu.advent.intcode.IntcodeComputer.*;
+
+//Opt in instrumentation, machine runs own counting interpreter loop only while profiler is set so plain runs pay nothing.
+//Can be shared by several machines running on same thread to aggregate their counts.
+//Memory reads per range count only data loaded by position mode operands, instruction words and immediate operands
+//fetched from program are not counted.
+public class IntcodeProfiler {
+
+    private static final int DEFAULT_RANGE_SIZE = 64;
+    private static final int DEFAULT_HOT_POINTERS = 20;
+
+    private final int rangeSize;
+    private final long[] retiredByOpcode = new long[100];
+    private long[] executionsByPointer = new long[0];
+    private long[] jumpsTakenByPointer = new long[0];
+    private long[] jumpsNotTakenByPointer = new long[0];
+    private long[] readsByRange = new long[0];
+    private long[] writesByRange = new long[0];
+
+    public IntcodeProfiler() {
+        this(DEFAULT_RANGE_SIZE);
+    }
+
+    public IntcodeProfiler(int rangeSize) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Range size should be positive: " + rangeSize);
+        }
+        this.rangeSize = rangeSize;
+    }
+
+    State run(IntcodeComputer computer, Memory memory, int pointer) {
+        ensureCapacity(memory.size());
+        int i = pointer;
+        while (true) {
+            long instruction = memory.get(i);
+            int opcode = opcode(instruction);
+            executionsByPointer[i]++;
+            switch (opcode) {
+                case ADD:
+                    write(memory, (int) memory.get(i + 3), parameter(memory, instruction, i, 1) + parameter(memory, instruction, i, 2));
+                    i += 4;
+                    break;
+                case MULTIPLY:
+                    write(memory, (int) memory.get(i + 3), parameter(memory, instruction, i, 1) * parameter(memory, instruction, i, 2));
+                    i += 4;
+                    break;
+                case INPUT:
+                    if (!computer.hasInput()) {
+                        //Executed again once input arrives, counted then
+                        executionsByPointer[i]--;
+                        computer.setPointer(i);
+                        return State.NEEDS_INPUT;
+                    }
+                    write(memory, (int) memory.get(i + 1), computer.takeInput());
+                    i += 2;
+                    break;
+                case OUTPUT:
+                    computer.setOutput(parameter(memory, instruction, i, 1));
+                    retiredByOpcode[opcode]++;
+                    computer.setPointer(i + 2);
+                    return State.OUTPUT;
+                case JUMP_IF_TRUE:
+                    i = jump(i, parameter(memory, instruction, i, 1) != 0, memory, instruction);
+                    break;
+                case JUMP_IF_FALSE:
+                    i = jump(i, parameter(memory, instruction, i, 1) == 0, memory, instruction);
+                    break;
+                case LESS_THAN:
+                    write(memory, (int) memory.get(i + 3), parameter(memory, instruction, i, 1) < parameter(memory, instruction, i, 2) ? 1 : 0);
+                    i += 4;
+                    break;
+                case EQUALS:
+                    write(memory, (int) memory.get(i + 3), parameter(memory, instruction, i, 1) == parameter(memory, instruction, i, 2) ? 1 : 0);
+                    i += 4;
+                    break;
+                case HALT:
+                    retiredByOpcode[opcode]++;
+                    computer.setPointer(i);
+                    return State.HALTED;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + instruction + " at " + i);
+            }
+            retiredByOpcode[opcode]++;
+        }
+    }
+
+    public long getRetiredInstructions() {
+        return Arrays.stream(retiredByOpcode).sum();
+    }
+
+    public long getRetired(int opcode) {
+        return retiredByOpcode[opcode];
+    }
+
+    public long getExecutions(int pointer) {
+        return pointer < executionsByPointer.length ? executionsByPointer[pointer] : 0;
+    }
+
+    public long getJumpsTaken() {
+        return Arrays.stream(jumpsTakenByPointer).sum();
+    }
+
+    public long getJumpsNotTaken() {
+        return Arrays.stream(jumpsNotTakenByPointer).sum();
+    }
+
+    //Most executed instruction pointers, most executed first
+    public int[] getHotPointers(int limit) {
+        return IntStream.range(0, executionsByPointer.length)
+                        .filter(pointer -> executionsByPointer[pointer] > 0)
+                        .boxed()
+                        .sorted(Comparator.comparingLong((Integer pointer) -> executionsByPointer[pointer]).reversed()
+                                          .thenComparing(Comparator.naturalOrder()))
+                        .limit(limit)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"retiredInstructions\": ").append(getRetiredInstructions()).append(",\n");
+        json.append("  \"opcodes\": {");
+        String separator = "";
+        for (int opcode = 0; opcode < retiredByOpcode.length; opcode++) {
+            if (retiredByOpcode[opcode] > 0) {
+                json.append(separator).append('"').append(opcode).append("\": ").append(retiredByOpcode[opcode]);
+                separator = ", ";
+            }
+        }
+        json.append("},\n");
+        json.append("  \"hotPointers\": [");
+        separator = "";
+        for (int pointer : getHotPointers(DEFAULT_HOT_POINTERS)) {
+            json.append(separator).append("{\"pointer\": ").append(pointer).append(", \"executions\": ").append(executionsByPointer[pointer]).append('}');
+            separator = ", ";
+        }
+        json.append("],\n");
+        json.append("  \"jumps\": {\"taken\": ").append(getJumpsTaken()).append(", \"notTaken\": ").append(getJumpsNotTaken()).append("},\n");
+        json.append("  \"memory\": {\"rangeSize\": ").append(rangeSize).append(", \"ranges\": [");
+        separator = "";
+        for (int range = 0; range < readsByRange.length; range++) {
+            if (readsByRange[range] > 0 || writesByRange[range] > 0) {
+                json.append(separator).append("{\"start\": ").append(range * rangeSize)
+                    .append(", \"reads\": ").append(readsByRange[range])
+                    .append(", \"writes\": ").append(writesByRange[range]).append('}');
+                separator = ", ";
+            }
+        }
+        return json.append("]}\n}\n").toString();
+    }
+
+    //One row per counter: section,key,count
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("section,key,count\n");
+        for (int opcode = 0; opcode < retiredByOpcode.length; opcode++) {
+            if (retiredByOpcode[opcode] > 0) {
+                csv.append("opcode,").append(opcode).append(',').append(retiredByOpcode[opcode]).append('\n');
+            }
+        }
+        for (int pointer = 0; pointer < executionsByPointer.length; pointer++) {
+            if (executionsByPointer[pointer] > 0) {
+                csv.append("pointer,").append(pointer).append(',').append(executionsByPointer[pointer]).append('\n');
+            }
+        }
+        for (int pointer = 0; pointer < jumpsTakenByPointer.length; pointer++) {
+            if (jumpsTakenByPointer[pointer] > 0) {
+                csv.append("jump_taken,").append(pointer).append(',').append(jumpsTakenByPointer[pointer]).append('\n');
+            }
+            if (jumpsNotTakenByPointer[pointer] > 0) {
+                csv.append("jump_not_taken,").append(pointer).append(',').append(jumpsNotTakenByPointer[pointer]).append('\n');
+            }
+        }
+        for (int range = 0; range < readsByRange.length; range++) {
+            String key = range * rangeSize + "-" + ((range + 1) * rangeSize - 1);
+            if (readsByRange[range] > 0) {
+                csv.append("reads,").append(key).append(',').append(readsByRange[range]).append('\n');
+            }
+            if (writesByRange[range] > 0) {
+                csv.append("writes,").append(key).append(',').append(writesByRange[range]).append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    private int jump(int pointer, boolean taken, Memory memory, long instruction) {
+        if (taken) {
+            jumpsTakenByPointer[pointer]++;
+            return (int) parameter(memory, instruction, pointer, 2);
+        }
+        jumpsNotTakenByPointer[pointer]++;
+        return pointer + 3;
+    }
+
+    private long parameter(Memory memory, long instruction, int pointer, int parameter) {
+        long value = memory.get(pointer + parameter);
+        if (mode(instruction, parameter) != POSITION_MODE) {
+            return value;
+        }
+        long result = memory.get((int) value);
+        readsByRange[(int) value / rangeSize]++;
+        return result;
+    }
+
+    private void write(Memory memory, int address, long value) {
+        memory.set(address, value);
+        writesByRange[address / rangeSize]++;
+    }
+
+    private void ensureCapacity(int size) {
+        if (executionsByPointer.length < size) {
+            executionsByPointer = Arrays.copyOf(executionsByPointer, size);
+            jumpsTakenByPointer = Arrays.copyOf(jumpsTakenByPointer, size);
+            jumpsNotTakenByPointer = Arrays.copyOf(jumpsNotTakenByPointer, size);
+            int ranges = (size + rangeSize - 1) / rangeSize;
+            readsByRange = Arrays.copyOf(readsByRange, ranges);
+            writesByRange = Arrays.copyOf(writesByRange, ranges);
+        }
+    }
+}
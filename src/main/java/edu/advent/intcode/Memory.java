@@ -0,0 +1,118 @@
+package edu.advent.intcode;
+
+//Paged memory over shared read only pristine pages, page is copied on first write and dropped again on reset
+public class Memory {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int OFFSET_MASK = PAGE_SIZE - 1;
+
+    //Shared between all forks, never written
+    private final long[][] pristine;
+    private final long[][] pages;
+    //Own page copies, kept after reset so next write to same page does not allocate
+    private final long[][] privatePages;
+    private final boolean[] dirty;
+    private final int[] dirtyPages;
+    private int dirtyCount;
+    private final int size;
+    //Lets cached or compiled code notice writes done outside of it
+    private long modifications;
+
+    private Memory(long[][] pristine, int size) {
+        this.pristine = pristine;
+        this.pages = pristine.clone();
+        this.privatePages = new long[pristine.length][];
+        this.dirty = new boolean[pristine.length];
+        this.dirtyPages = new int[pristine.length];
+        this.size = size;
+    }
+
+    public static Memory of(long[] program) {
+        long[][] pages = new long[(program.length + PAGE_SIZE - 1) >>> PAGE_BITS][];
+        for (int i = 0; i < pages.length; i++) {
+            int from = i << PAGE_BITS;
+            pages[i] = new long[Math.min(PAGE_SIZE, program.length - from)];
+            System.arraycopy(program, from, pages[i], 0, pages[i].length);
+        }
+        return new Memory(pages, program.length);
+    }
+
+    //New memory in pristine state, sharing pristine pages with this one
+    public Memory fork() {
+        return new Memory(pristine, size);
+    }
+
+    //Takes over contents of other memory forked from same program, cost depends only on number of written pages in both
+    public void copyFrom(Memory other) {
+        if (other.pristine != pristine) {
+            throw new IllegalArgumentException("Memory is not forked from same program");
+        }
+        if (other == this) {
+            return;
+        }
+        reset();
+        for (int i = 0; i < other.dirtyCount; i++) {
+            int page = other.dirtyPages[i];
+            makePrivate(page, other.pages[page]);
+        }
+    }
+
+    public long get(int address) {
+        return pages[address >>> PAGE_BITS][address & OFFSET_MASK];
+    }
+
+    public void set(int address, long value) {
+        int page = address >>> PAGE_BITS;
+        if (!dirty[page]) {
+            makePrivate(page);
+        }
+        pages[page][address & OFFSET_MASK] = value;
+        modifications++;
+    }
+
+    //Back to pristine program, cost depends only on number of written pages
+    public void reset() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int page = dirtyPages[i];
+            pages[page] = pristine[page];
+            dirty[page] = false;
+        }
+        dirtyCount = 0;
+        modifications++;
+    }
+
+    public long modificationCount() {
+        return modifications;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        for (int i = 0; i < pages.length; i++) {
+            System.arraycopy(pages[i], 0, result, i << PAGE_BITS, pages[i].length);
+        }
+        return result;
+    }
+
+    private void makePrivate(int page) {
+        makePrivate(page, pristine[page]);
+    }
+
+    //Page becomes own copy of given contents, copied once straight into it
+    private void makePrivate(int page, long[] contents) {
+        long[] copy = privatePages[page];
+        if (copy == null) {
+            copy = contents.clone();
+            privatePages[page] = copy;
+        } else {
+            System.arraycopy(contents, 0, copy, 0, copy.length);
+        }
+        pages[page] = copy;
+        dirty[page] = true;
+        dirtyPages[dirtyCount++] = page;
+    }
+}
@@ -0,0 +1,92 @@
+package edu.advent.intcode;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//Bounded lock free ring buffer, safe only for exactly one producer thread and one consumer thread
+public class SpscChannel {
+
+    private static final int SPINS_BEFORE_YIELD = 64;
+    private static final int YIELDS_BEFORE_PARK = 64;
+    private static final long PARK_NANOS = 1_000;
+
+    private final long[] buffer;
+    private final int mask;
+    //Written only by consumer
+    private final AtomicLong head = new AtomicLong();
+    //Written only by producer
+    private final AtomicLong tail = new AtomicLong();
+    private volatile boolean closed;
+
+    public SpscChannel(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity should be positive power of two: " + capacity);
+        }
+        this.buffer = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    //Blocks while channel is full, fails when channel was closed and is full as nobody will make room anymore.
+    //Value put into closed channel with room left is kept, so it still counts as last one
+    public void put(long value) {
+        long currentTail = tail.get();
+        int idle = 0;
+        while (currentTail - head.get() == buffer.length) {
+            if (closed && currentTail - head.get() == buffer.length) {
+                throw new ClosedException();
+            }
+            idle = backOff(idle);
+        }
+        buffer[(int) currentTail & mask] = value;
+        tail.lazySet(currentTail + 1);
+    }
+
+    //Blocks until value is available, fails when channel was closed and drained
+    public long take() {
+        long currentHead = head.get();
+        int idle = 0;
+        while (currentHead == tail.get()) {
+            if (closed && currentHead == tail.get()) {
+                throw new ClosedException();
+            }
+            idle = backOff(idle);
+        }
+        long value = buffer[(int) currentHead & mask];
+        head.lazySet(currentHead + 1);
+        return value;
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    //Last value ever put, stays in buffer as consumer never writes to it. Only for producer or after producer finished
+    long last() {
+        long currentTail = tail.get();
+        if (currentTail == 0) {
+            throw new IllegalStateException("Nothing was put into channel");
+        }
+        return buffer[(int) (currentTail - 1) & mask];
+    }
+
+    private static int backOff(int idle) {
+        if (idle < SPINS_BEFORE_YIELD) {
+            return idle + 1;
+        }
+        if (idle < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+            Thread.yield();
+            return idle + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return idle;
+    }
+
+    public static class ClosedException extends IllegalStateException {
+
+        private static final long serialVersionUID = 1L;
+
+        ClosedException() {
+            super("Channel closed");
+        }
+    }
+}
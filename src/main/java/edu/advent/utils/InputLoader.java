@@ -1,16 +1,47 @@
 package edu.advent.utils;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class InputLoader {
 
+    //Smaller files are read through buffer, mapping them costs more than it saves
+    private static final long MAP_THRESHOLD = 1 << 20;
+    //Files over 2GB are mapped piece by piece
+    private static final long MAP_CHUNK = 1 << 30;
+    static final int BUFFER_SIZE = 1 << 16;
+
     public static List<String> getInputAsStrings(String name) {
         try {
-            Path path = Paths.get(InputLoader.class.getResource("/" + name + ".txt").toURI());
+            URL resource = resource(name);
+            if (isFile(resource)) {
+                return getInputAsStrings(Paths.get(resource.toURI()));
+            }
+            //Packaged in jar, no file system path to read from
+            try (InputStream stream = resource.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.toList());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static List<String> getInputAsStrings(Path path) {
+        try {
             return Files.readAllLines(path);
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -18,14 +49,111 @@ public class InputLoader {
     }
 
     public static long[] readLinesAsNumbers(String name) {
-        return getInputAsStrings(name).stream()
-                                      .mapToLong(Long::parseLong)
-                                      .toArray();
+        return readNumbers(name, new LongParser(false));
     }
 
+    public static long[] readLinesAsNumbers(Path path) {
+        return readNumbers(path, new LongParser(false));
+    }
+
+    //Only first line is read
     public static long[] readComaSeparatedValues(String name) {
-        return Arrays.stream(getInputAsStrings(name).get(0).split(","))
-                     .mapToLong(Long::parseLong)
-                     .toArray();
+        return readNumbers(name, new LongParser(true));
+    }
+
+    public static long[] readComaSeparatedValues(Path path) {
+        return readNumbers(path, new LongParser(true));
+    }
+
+    public static NumberStream streamNumbers(String name) {
+        return new NumberStream(open(name));
+    }
+
+    public static NumberStream streamNumbers(Path path) {
+        return new NumberStream(open(path));
+    }
+
+    public static LineCursor streamLines(String name) {
+        return new LineCursor(open(name));
+    }
+
+    public static LineCursor streamLines(Path path) {
+        return new LineCursor(open(path));
+    }
+
+    private static ReadableByteChannel open(String name) {
+        try {
+            URL resource = resource(name);
+            if (isFile(resource)) {
+                return open(Paths.get(resource.toURI()));
+            }
+            return Channels.newChannel(resource.openStream());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ReadableByteChannel open(Path path) {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long[] readNumbers(String name, LongParser parser) {
+        try {
+            URL resource = resource(name);
+            if (isFile(resource)) {
+                return readNumbers(Paths.get(resource.toURI()), parser);
+            }
+            try (ReadableByteChannel channel = Channels.newChannel(resource.openStream())) {
+                return readNumbers(channel, parser);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long[] readNumbers(Path path, LongParser parser) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAP_THRESHOLD) {
+                return readNumbers(channel, parser);
+            }
+            for (long position = 0; position < size; position += MAP_CHUNK) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position));
+                if (!parser.parse(mapped)) {
+                    break;
+                }
+            }
+            return parser.finish();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long[] readNumbers(ReadableByteChannel channel, LongParser parser) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            if (!parser.parse(buffer)) {
+                break;
+            }
+            buffer.clear();
+        }
+        return parser.finish();
+    }
+
+    private static URL resource(String name) {
+        URL resource = InputLoader.class.getResource("/" + name + ".txt");
+        if (resource == null) {
+            throw new IllegalArgumentException("No input named " + name);
+        }
+        return resource;
+    }
+
+    private static boolean isFile(URL resource) {
+        return "file".equals(resource.getProtocol());
     }
 }
@@ -0,0 +1,68 @@
+package edu.advent.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+//Walks input line by line reusing one buffer, line is only valid until next call. Inputs are plain ASCII
+public class LineCursor implements Closeable {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(InputLoader.BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder();
+    private boolean exhausted;
+
+    LineCursor(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    //False once there are no more lines, last line does not need line terminator
+    public boolean next() {
+        line.setLength(0);
+        boolean started = false;
+        while (buffer.hasRemaining() || fill()) {
+            byte b = buffer.get();
+            started = true;
+            if (b == '\n') {
+                int last = line.length() - 1;
+                if (last >= 0 && line.charAt(last) == '\r') {
+                    line.setLength(last);
+                }
+                return true;
+            }
+            line.append((char) (b & 0xFF));
+        }
+        return started;
+    }
+
+    public CharSequence line() {
+        return line;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean fill() {
+        if (exhausted) {
+            return false;
+        }
+        try {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            exhausted = read < 0;
+            return buffer.hasRemaining();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package edu.advent.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+//Parses signed decimal longs straight from bytes, one at a time or into growable array.
+//State is kept between calls so input can come in chunks. Comma at start of line or right after another comma
+//is empty field and rejected. Only commas and line breaks separate numbers, so spaces are rejected like in
+//Long.parseLong, which also allowed leading '+'. Blank lines and comma ending line are tolerated
+class LongParser {
+
+    private static final long MULTIPLY_LIMIT = Long.MIN_VALUE / 10;
+
+    private final boolean firstLineOnly;
+    private long[] values = new long[1024];
+    private int size;
+    //Accumulated negatively like Long.parseLong, so Long.MIN_VALUE fits too
+    private long current;
+    private boolean negative;
+    private boolean signed;
+    private boolean inNumber;
+    //No number since start of line or last comma
+    private boolean fieldStart = true;
+    private boolean done;
+    private long value;
+
+    LongParser(boolean firstLineOnly) {
+        this.firstLineOnly = firstLineOnly;
+    }
+
+    //Returns false once rest of input is not needed anymore
+    boolean parse(ByteBuffer buffer) {
+        while (next(buffer)) {
+            add(value);
+        }
+        return !done;
+    }
+
+    long[] finish() {
+        if (end()) {
+            add(value);
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    //Advances buffer until one number is complete, false when buffer ran out first or first line has ended
+    boolean next(ByteBuffer buffer) {
+        if (done) {
+            return false;
+        }
+        int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                int digit = b - '0';
+                if (current < MULTIPLY_LIMIT || current * 10 < Long.MIN_VALUE + digit) {
+                    throw new NumberFormatException("Number does not fit in long");
+                }
+                current = current * 10 - digit;
+                inNumber = true;
+            } else if ((b == '-' || b == '+') && !signed && !inNumber) {
+                signed = true;
+                negative = b == '-';
+            } else if (b == ',' || b == '\n' || b == '\r') {
+                boolean completed = endNumber();
+                if (b == ',') {
+                    if (!completed && fieldStart) {
+                        throw new NumberFormatException("Empty field");
+                    }
+                    fieldStart = true;
+                } else if (b == '\n') {
+                    fieldStart = true;
+                }
+                done = b == '\n' && firstLineOnly;
+                if (completed || done) {
+                    buffer.position(i + 1);
+                    return completed;
+                }
+            } else {
+                throw new NumberFormatException("Unexpected character '" + (char) b + "'");
+            }
+        }
+        buffer.position(limit);
+        return false;
+    }
+
+    //Input has ended, true when it completed last number
+    boolean end() {
+        return !done && endNumber();
+    }
+
+    long value() {
+        return value;
+    }
+
+    private void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    private boolean endNumber() {
+        if (!inNumber) {
+            if (signed) {
+                throw new NumberFormatException("Sign without digits");
+            }
+            return false;
+        }
+        if (!negative && current == Long.MIN_VALUE) {
+            throw new NumberFormatException("Number does not fit in long");
+        }
+        value = negative ? current : -current;
+        fieldStart = false;
+        current = 0;
+        negative = false;
+        signed = false;
+        inNumber = false;
+        return true;
+    }
+}
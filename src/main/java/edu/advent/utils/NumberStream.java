@@ -0,0 +1,66 @@
+package edu.advent.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+//Numbers separated by commas or new lines read lazily through one buffer, input never has to fit in heap
+public class NumberStream implements PrimitiveIterator.OfLong, Closeable {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(InputLoader.BUFFER_SIZE);
+    private final LongParser parser = new LongParser(false);
+    private boolean ready;
+    private boolean exhausted;
+
+    NumberStream(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!ready && !exhausted) {
+            if (parser.next(buffer)) {
+                ready = true;
+            } else if (!fill()) {
+                exhausted = true;
+                ready = parser.end();
+            }
+        }
+        return ready;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        return parser.value();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean fill() {
+        try {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            return read >= 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}